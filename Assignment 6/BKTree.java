@@ -0,0 +1,143 @@
+// BK-tree (metric tree) over the dictionary words, using the Levenshtein
+// distance (insertion, deletion and substitution of any character).
+// Each child hangs under its parent by its distance to the parent. A query
+// for words within d of q only needs the children whose distance k to a
+// visited node satisfies |k - dist(q, node)| <= d (triangle inequality), so
+// most of the tree is skipped. Unlike generateEditDistance1 this works for
+// any d without enumerating candidate strings. Searches reuse internal
+// buffers, so one tree should be searched by one thread at a time.
+public class BKTree {
+
+    private static final class Node {
+        final String word;
+        // children[k] is the child at distance k from this word
+        Node[] children;
+
+        Node(String word) {
+            this.word = word;
+        }
+    }
+
+    private Node root;
+    private int size;
+    private int lastVisited;
+
+    // Reused rows of the distance table
+    private int[] previousRow = new int[32];
+    private int[] currentRow = new int[32];
+
+    // Builds the tree from all words of the dictionary
+    public BKTree(GTUHashSet<String> dictionary) {
+        for (String word : dictionary) {
+            add(word);
+        }
+    }
+
+    // Adds a word, duplicates are ignored
+    public void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int d = distance(word, node.word);
+            if (d == 0) {
+                return;
+            }
+            if (node.children == null) {
+                node.children = new Node[d + 1];
+            } else if (node.children.length <= d) {
+                Node[] bigger = new Node[d + 1];
+                System.arraycopy(node.children, 0, bigger, 0, node.children.length);
+                node.children = bigger;
+            }
+            if (node.children[d] == null) {
+                node.children[d] = new Node(word);
+                size++;
+                return;
+            }
+            node = node.children[d];
+        }
+    }
+
+    // Returns every word within maxDistance of the query
+    public GTUHashSet<String> search(String query, int maxDistance) {
+        GTUHashSet<String> result = new GTUHashSet<>();
+        lastVisited = 0;
+        if (root == null) {
+            return result;
+        }
+
+        // Explicit stack instead of recursion
+        Node[] stack = new Node[64];
+        int top = 0;
+        stack[top++] = root;
+
+        while (top > 0) {
+            Node node = stack[--top];
+            lastVisited++;
+
+            int d = distance(query, node.word);
+            if (d <= maxDistance) {
+                result.add(node.word);
+            }
+            if (node.children == null) {
+                continue;
+            }
+
+            // Only children at distance d - maxDistance .. d + maxDistance can match
+            int from = Math.max(1, d - maxDistance);
+            int to = Math.min(node.children.length - 1, d + maxDistance);
+            for (int k = from; k <= to; k++) {
+                if (node.children[k] != null) {
+                    if (top == stack.length) {
+                        Node[] bigger = new Node[stack.length * 2];
+                        System.arraycopy(stack, 0, bigger, 0, top);
+                        stack = bigger;
+                    }
+                    stack[top++] = node.children[k];
+                }
+            }
+        }
+        return result;
+    }
+
+    // Number of tree nodes the last search() compared against the query
+    public int getLastVisited() {
+        return lastVisited;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Levenshtein distance with two reused rows of the dynamic programming table
+    private int distance(String a, String b) {
+        int n = a.length();
+        int m = b.length();
+        if (previousRow.length <= m) {
+            previousRow = new int[m + 1];
+            currentRow = new int[m + 1];
+        }
+
+        for (int j = 0; j <= m; j++) {
+            previousRow[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            currentRow[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = c == b.charAt(j - 1) ? 0 : 1;
+                currentRow[j] = Math.min(Math.min(currentRow[j - 1] + 1, previousRow[j] + 1),
+                        previousRow[j - 1] + cost);
+            }
+            int[] tmp = previousRow;
+            previousRow = currentRow;
+            currentRow = tmp;
+        }
+        return previousRow[m];
+    }
+}
@@ -0,0 +1,227 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Spell-checks a whole text stream instead of one word at a time.
+// - The input is read line by line and handed to worker threads in chunks
+//   of CHUNK_LINES lines. The work queue is bounded, so a huge file is never
+//   held in memory; the reader simply waits (or checks a chunk itself) when
+//   the workers fall behind.
+// - Words are the runs of letters in a line. Each distinct word is checked
+//   only once: the first thread to put it into the seen-set checks it, the
+//   others skip it.
+// - Every misspelled word is written once, as "word: [suggestions]", through
+//   one buffered writer. Lines appear in the order chunks finish, not in
+//   input order.
+// The spell checker is frozen and gets its deletion index before the run,
+// so every lookup and suggestion is read-only and safe to share.
+public class BatchSpellChecker {
+    private static final int CHUNK_LINES = 4096;
+    // Same limit as the interactive mode, longer words get no suggestions
+    private static final int MAX_SUGGESTION_LENGTH = 20;
+
+    private final SpellChecker spellChecker;
+    private final int threads;
+    private final GTUConcurrentHashMap<String, Boolean> seen;
+
+    private final LongAdder totalWords = new LongAdder();
+    private final LongAdder uniqueWords = new LongAdder();
+    private final LongAdder misspelledWords = new LongAdder();
+
+    public BatchSpellChecker(SpellChecker spellChecker, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.spellChecker = spellChecker;
+        this.threads = threads;
+        this.seen = new GTUConcurrentHashMap<>(1 << 16);
+
+        if (spellChecker.lookup == null) {
+            spellChecker.freezeDictionary();
+        }
+        if (spellChecker.deletionIndex == null && spellChecker.dictionary.size() > 0) {
+            spellChecker.buildDeletionIndex();
+        }
+    }
+
+    // Checks every word of the input and writes the misspelled ones to the output
+    public void run(InputStream input, Writer output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        BufferedWriter writer = new BufferedWriter(output, 1 << 16);
+
+        // Bounded queue, the reading thread runs a chunk itself when it is full
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        // First exception of any chunk, rethrown once all chunks are done
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        try {
+            ArrayList<String> chunk = new ArrayList<>(CHUNK_LINES);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                chunk.add(line);
+                if (chunk.size() == CHUNK_LINES) {
+                    submit(executor, chunk, writer, failure);
+                    chunk = new ArrayList<>(CHUNK_LINES);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(executor, chunk, writer, failure);
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (writer) {
+            writer.flush();
+        }
+        Exception e = failure.get();
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        if (e != null) {
+            throw (RuntimeException) e;
+        }
+    }
+
+    // A chunk that fails records its exception instead of losing it in the
+    // worker thread, so run() can not return normally with a report missing
+    private void submit(ThreadPoolExecutor executor, ArrayList<String> lines,
+                        BufferedWriter writer, AtomicReference<Exception> failure) {
+        executor.execute(() -> {
+            // The report is incomplete anyway, skip the remaining chunks
+            if (failure.get() != null) {
+                return;
+            }
+            try {
+                String report = checkLines(lines);
+                if (report.isEmpty()) {
+                    return;
+                }
+                synchronized (writer) {
+                    writer.write(report);
+                }
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+    }
+
+    // Checks the words of one chunk and returns the report lines of its misspelled words
+    private String checkLines(ArrayList<String> lines) {
+        StringBuilder report = new StringBuilder();
+        for (String line : lines) {
+            int i = 0;
+            int length = line.length();
+            while (i < length) {
+                // Skip to the next letter, then take the run of letters
+                while (i < length && !Character.isLetter(line.charAt(i))) {
+                    i++;
+                }
+                int start = i;
+                while (i < length && Character.isLetter(line.charAt(i))) {
+                    i++;
+                }
+                if (i > start) {
+                    checkWord(line.substring(start, i), report);
+                }
+            }
+        }
+        return report.toString();
+    }
+
+    private void checkWord(String word, StringBuilder report) {
+        totalWords.increment();
+        if (seen.putIfAbsent(word, Boolean.TRUE) != null) {
+            return;
+        }
+        uniqueWords.increment();
+
+        // The dictionary is lower case, so "The" at the start of a sentence is fine too
+        if (spellChecker.isWord(word) || spellChecker.isWord(word.toLowerCase(Locale.ROOT))) {
+            return;
+        }
+        misspelledWords.increment();
+
+        report.append(word).append(": ");
+        if (word.length() > MAX_SUGGESTION_LENGTH) {
+            report.append("No suggestions found.");
+        } else {
+            GTUHashSet<String> suggestions = spellChecker.generateEditDistance2(word.toLowerCase(Locale.ROOT));
+            report.append(suggestions.size() == 0 ? "No suggestions found." : suggestions.toString());
+        }
+        report.append('\n');
+    }
+
+    public long getTotalWords() {
+        return totalWords.sum();
+    }
+
+    public long getUniqueWords() {
+        return uniqueWords.sum();
+    }
+
+    public long getMisspelledWords() {
+        return misspelledWords.sum();
+    }
+
+    // Usage: java BatchSpellChecker <text file | -> [output file] [threads]
+    // "-" reads standard input, results go to standard output by default.
+    // The summary is printed to standard error so it never mixes with the results.
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 3) {
+            System.out.println("Usage: java BatchSpellChecker <text file | -> [output file] [threads]");
+            return;
+        }
+        int threads = args.length == 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        long setupStart = System.nanoTime();
+        BatchSpellChecker batch = new BatchSpellChecker(new SpellChecker(), threads);
+        long setupEnd = System.nanoTime();
+
+        InputStream input = args[0].equals("-") ? System.in : new FileInputStream(args[0]);
+        Writer output = args.length >= 2 && !args[1].equals("-")
+                ? new OutputStreamWriter(new FileOutputStream(args[1]), StandardCharsets.UTF_8)
+                : new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+
+        long startTime = System.nanoTime();
+        try {
+            batch.run(input, output);
+        } finally {
+            if (input != System.in) {
+                input.close();
+            }
+            output.flush();
+            if (args.length >= 2 && !args[1].equals("-")) {
+                output.close();
+            }
+        }
+        long endTime = System.nanoTime();
+
+        double seconds = (endTime - startTime) / 1e9;
+        System.err.printf("Dictionary and index setup took %.2f ms.\n", (setupEnd - setupStart) / 1e6);
+        System.err.printf("Words: %d, distinct: %d, misspelled: %d\n",
+                batch.getTotalWords(), batch.getUniqueWords(), batch.getMisspelledWords());
+        System.err.printf("Checked in %.2f s, %.0f words/second with %d threads.\n",
+                seconds, batch.getTotalWords() / seconds, threads);
+    }
+}
@@ -0,0 +1,92 @@
+// Split block Bloom filter over String hash codes. Each key sets eight bits,
+// one in each long of a 512-bit block (one cache line), so a query reads a
+// single block in a fixed number of steps. Most words that are not in the
+// set are rejected this way without touching the set itself. A "yes" may be
+// wrong (false positive), a "no" never is. bitsPerKey only changes the
+// number of blocks.
+//
+// Keys are given by their String.hashCode(), so candidates built in a char
+// buffer can be checked with the hash they already have.
+public class BloomFilter {
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_LONGS = BLOCK_BITS / 64;
+    // Odd multipliers choosing the bit of a key in each long of its block
+    private static final int[] SALT = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+            0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31
+    };
+
+    private final long[] bits;
+    private final int blockCount;
+    private final int keyCount;
+
+    // Constructor for a filter of expectedKeys keys using bitsPerKey bits each
+    public BloomFilter(int expectedKeys, int bitsPerKey) {
+        if (bitsPerKey < 1) {
+            throw new IllegalArgumentException("bitsPerKey must be at least 1");
+        }
+        long totalBits = Math.max(1L, (long) expectedKeys) * bitsPerKey;
+        blockCount = (int) Math.max(1, (totalBits + BLOCK_BITS - 1) / BLOCK_BITS);
+        bits = new long[blockCount * BLOCK_LONGS];
+        keyCount = expectedKeys;
+    }
+
+    // Builds a filter containing every word of the set
+    public static BloomFilter of(GTUHashSet<String> words, int bitsPerKey) {
+        BloomFilter filter = new BloomFilter(words.size(), bitsPerKey);
+        for (String word : words) {
+            filter.add(word.hashCode());
+        }
+        return filter;
+    }
+
+    // First long of the block of a mixed hash
+    private int blockOf(int h) {
+        return (int) (((h & 0xffffffffL) * blockCount) >>> 32) * BLOCK_LONGS;
+    }
+
+    // Bit of the key inside long i of its block, from the upper bits of the
+    // hash times that long's odd salt
+    private static long bitOf(int h, int i) {
+        return 1L << ((h * SALT[i]) >>> 26);
+    }
+
+    public void add(int hash) {
+        int h = Hashing.mix(hash);
+        int block = blockOf(h);
+        for (int i = 0; i < BLOCK_LONGS; i++) {
+            bits[block + i] |= bitOf(h, i);
+        }
+    }
+
+    // False means the key was never added, true means it probably was.
+    // All eight bits are tested without an early exit: for candidates that
+    // are not words the first missing bit is at a random position, and the
+    // mispredicted branches would cost more than the extra tests, which all
+    // read the same cache line.
+    public boolean mightContain(int hash) {
+        int h = Hashing.mix(hash);
+        int block = blockOf(h);
+        long missing = 0;
+        for (int i = 0; i < BLOCK_LONGS; i++) {
+            missing |= ~bits[block + i] & bitOf(h, i);
+        }
+        return missing == 0;
+    }
+
+    // Expected false positive rate for the keys the filter was sized for,
+    // (1 - e^(-k n / m))^k with k = 8. Blocking raises the real rate slightly.
+    public double expectedFalsePositiveRate() {
+        double m = (double) bits.length * 64;
+        return Math.pow(1 - Math.exp(-BLOCK_LONGS * (double) keyCount / m), BLOCK_LONGS);
+    }
+
+    public int getHashCount() {
+        return BLOCK_LONGS;
+    }
+
+    // Size of the bit array in bytes
+    public int sizeInBytes() {
+        return bits.length * 8;
+    }
+}
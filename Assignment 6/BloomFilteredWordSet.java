@@ -0,0 +1,79 @@
+import java.util.concurrent.atomic.LongAdder;
+
+// WordSet that asks a Bloom filter before the underlying set. Words the
+// filter rejects are answered without probing the set; the rest are
+// checked exactly, so the answers are the same as the set's.
+// The counters tell how well the filter works on the real queries: a false
+// positive is a word the filter let through that the set did not contain.
+public class BloomFilteredWordSet implements WordSet {
+    private final BloomFilter filter;
+    private final WordSet words;
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public BloomFilteredWordSet(BloomFilter filter, WordSet words) {
+        this.filter = filter;
+        this.words = words;
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        int hash = Hashing.hashOf(word);
+        queries.increment();
+        if (!filter.mightContain(hash)) {
+            rejected.increment();
+            return false;
+        }
+        return confirm(words.contains(word));
+    }
+
+    @Override
+    public boolean contains(char[] chars, int length, int hash) {
+        queries.increment();
+        if (!filter.mightContain(hash)) {
+            rejected.increment();
+            return false;
+        }
+        return confirm(words.contains(chars, length, hash));
+    }
+
+    private boolean confirm(boolean found) {
+        if (!found) {
+            falsePositives.increment();
+        }
+        return found;
+    }
+
+    @Override
+    public int size() {
+        return words.size();
+    }
+
+    public BloomFilter getFilter() {
+        return filter;
+    }
+
+    public WordSet getWords() {
+        return words;
+    }
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    // Share of the words not in the set that the filter let through
+    public double observedFalsePositiveRate() {
+        long negatives = rejected.sum() + falsePositives.sum();
+        return negatives == 0 ? 0 : (double) falsePositives.sum() / negatives;
+    }
+}
@@ -0,0 +1,219 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Produces the same suggestions as SpellChecker.generateEditDistance2
+// without creating a String per candidate. Candidates are built in place
+// in two reusable char buffers, one per edit level, and their
+// String.hashCode() is computed from prefix and suffix hashes of the word
+// they are edited from:
+//   hash(a + c + b) = hash(a) * 31^(|b| + 1) + c * 31^|b| + hash(b)
+// (int overflow gives exactly the String.hashCode() arithmetic).
+// The dictionary is probed with WordSet.contains(char[], int, int) and a
+// String is created only for candidates that are words.
+//
+// The edits are the ones of generateEditDistance1: deleting any character,
+// substituting or inserting 'a'..'z' and swapping two different adjacent
+// characters. One generator is used for one query, so queries on different
+// threads do not share buffers.
+//
+// The first level edits are independent of each other, so
+// generateInParallel() splits them into ranges that are expanded by
+// separate generators in a ForkJoinPool and merges their results.
+public class CandidateGenerator {
+    // First level edits a parallel task expands without splitting further
+    private static final int SPLIT_THRESHOLD = 64;
+
+    private final WordSet words;
+    // Insertion ordered, so results are printed in the order they were found
+    private final GTUHashSet<String> suggestions = new GTUHashSet<>(new GTUCompactHashMap<>());
+
+    private final char[] input;
+    // Level one candidates (edits of the input) and level two (edits of those)
+    private final char[] outer;
+    private final char[] inner;
+    // prefix[i] is the hash of the first i chars, suffix[i] of the chars from i on
+    private final int[] inputPrefix;
+    private final int[] inputSuffix;
+    private final int[] outerPrefix;
+    private final int[] outerSuffix;
+    // power[k] is 31^k
+    private final int[] power;
+
+    public CandidateGenerator(WordSet words, String word) {
+        this.words = words;
+        int n = word.length();
+        input = word.toCharArray();
+        outer = new char[n + 1];
+        inner = new char[n + 2];
+        inputPrefix = new int[n + 2];
+        inputSuffix = new int[n + 2];
+        outerPrefix = new int[n + 3];
+        outerSuffix = new int[n + 3];
+        power = new int[n + 3];
+        power[0] = 1;
+        for (int k = 1; k < power.length; k++) {
+            power[k] = power[k - 1] * 31;
+        }
+    }
+
+    // Returns every dictionary word within two edits of the input
+    public GTUHashSet<String> generateEditDistance2() {
+        return expand(0, Integer.MAX_VALUE);
+    }
+
+    // Returns every dictionary word exactly one edit away from the input.
+    // A generator collects into one set, so use a new one for each call.
+    public GTUHashSet<String> generateEditDistance1() {
+        hashes(input, input.length, inputPrefix, inputSuffix);
+        edits(input, input.length, inputPrefix, inputSuffix, outer, false, 0, Integer.MAX_VALUE);
+        return suggestions;
+    }
+
+    // Returns the words within one edit of the first level edits numbered
+    // from (inclusive) to to (exclusive), in the order edits() builds them
+    private GTUHashSet<String> expand(int from, int to) {
+        hashes(input, input.length, inputPrefix, inputSuffix);
+        edits(input, input.length, inputPrefix, inputSuffix, outer, true, from, to);
+        return suggestions;
+    }
+
+    // Upper bound of the edits edits() builds for a word of the given length:
+    // deletions, substitutions, insertions and transpositions. Skipped
+    // substitutions and swaps only leave some numbers unused.
+    private static int maxEdits(int n) {
+        return n + 26 * n + 26 * (n + 1) + Math.max(0, n - 1);
+    }
+
+    // Same result as generateEditDistance2(), with the first level edits
+    // split across the pool
+    public static GTUHashSet<String> generateInParallel(WordSet words, String word, ForkJoinPool pool) {
+        return pool.invoke(new ExpandTask(words, word, 0, maxEdits(word.length())));
+    }
+
+    // Expands a range of first level edits, halving it until it is small
+    private static final class ExpandTask extends RecursiveTask<GTUHashSet<String>> {
+        private static final long serialVersionUID = 1L;
+
+        private final WordSet words;
+        private final String word;
+        private final int from;
+        private final int to;
+
+        ExpandTask(WordSet words, String word, int from, int to) {
+            this.words = words;
+            this.word = word;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected GTUHashSet<String> compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                // Own generator, so the buffers and the result set are local to this task
+                return new CandidateGenerator(words, word).expand(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ExpandTask left = new ExpandTask(words, word, from, middle);
+            left.fork();
+            GTUHashSet<String> result = new ExpandTask(words, word, middle, to).compute();
+            result.addAll(left.join());
+            return result;
+        }
+    }
+
+    // Fills the prefix and suffix hashes of chars[0, length)
+    private static void hashes(char[] chars, int length, int[] prefix, int[] suffix) {
+        prefix[0] = 0;
+        for (int i = 0; i < length; i++) {
+            prefix[i + 1] = 31 * prefix[i] + chars[i];
+        }
+        suffix[length] = 0;
+        int p = 1;
+        for (int i = length - 1; i >= 0; i--) {
+            suffix[i] = chars[i] * p + suffix[i + 1];
+            p *= 31;
+        }
+    }
+
+    // Builds every single edit of source[0, length) in target. On the outer
+    // level each edit is checked and then edited again, on the inner level
+    // it is only checked. Only the edits numbered from .. to - 1 are visited.
+    private void edits(char[] source, int length, int[] prefix, int[] suffix, char[] target,
+                       boolean isOuter, int from, int to) {
+        int k = 0;
+
+        // 1. Deletions: remove each character once
+        for (int i = 0; i < length; i++) {
+            System.arraycopy(source, 0, target, 0, i);
+            System.arraycopy(source, i + 1, target, i, length - i - 1);
+            int hash = prefix[i] * power[length - 1 - i] + suffix[i + 1];
+            if (k >= from && k < to) {
+                visit(target, length - 1, hash, isOuter);
+            }
+            k++;
+        }
+
+        // 2. Substitutions: replace each character with 'a' to 'z'
+        System.arraycopy(source, 0, target, 0, length);
+        for (int i = 0; i < length; i++) {
+            int base = prefix[i] * power[length - i] + suffix[i + 1];
+            for (char c = 'a'; c <= 'z'; c++) {
+                if (source[i] != c) {
+                    target[i] = c;
+                    if (k >= from && k < to) {
+                        visit(target, length, base + c * power[length - 1 - i], isOuter);
+                    }
+                    k++;
+                }
+            }
+            target[i] = source[i];
+        }
+
+        // 3. Insertions: insert 'a' to 'z' at every position
+        System.arraycopy(source, 0, target, 1, length);
+        for (int i = 0; i <= length; i++) {
+            // target holds source[0, i), a free slot at i, then source[i, length)
+            if (i > 0) {
+                target[i - 1] = source[i - 1];
+            }
+            int base = prefix[i] * power[length + 1 - i] + suffix[i];
+            for (char c = 'a'; c <= 'z'; c++) {
+                target[i] = c;
+                if (k >= from && k < to) {
+                    visit(target, length + 1, base + c * power[length - i], isOuter);
+                }
+                k++;
+            }
+        }
+
+        // 4. Transpositions: swap every two adjacent different characters
+        System.arraycopy(source, 0, target, 0, length);
+        for (int i = 0; i < length - 1; i++) {
+            char a = source[i];
+            char b = source[i + 1];
+            if (a != b) {
+                target[i] = b;
+                target[i + 1] = a;
+                int hash = prefix[i] * power[length - i] + b * power[length - i - 1]
+                        + a * power[length - i - 2] + suffix[i + 2];
+                if (k >= from && k < to) {
+                    visit(target, length, hash, isOuter);
+                }
+                k++;
+                target[i] = a;
+                target[i + 1] = b;
+            }
+        }
+    }
+
+    private void visit(char[] candidate, int length, int hash, boolean isOuter) {
+        if (words.contains(candidate, length, hash)) {
+            suggestions.add(new String(candidate, 0, length));
+        }
+        if (isOuter) {
+            // The outer buffer is only read while its edits are generated
+            hashes(candidate, length, outerPrefix, outerSuffix);
+            edits(candidate, length, outerPrefix, outerSuffix, inner, false, 0, Integer.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+// Immutable set of strings stored without a String object per word. All
+// words are packed one after another into a single byte[] arena, one byte
+// per char (Latin-1), and word i is arena[offsets[i], offsets[i + 1]).
+// A linear probing table of ints points to the words. The hash of a word
+// is computed from its bytes with the String.hashCode() formula, so a
+// lookup can hash any CharSequence or char buffer the same way and compares
+// it with the bytes directly, without decoding anything.
+// Words with a char above 0xFF do not fit in one byte; the few there are
+// stay Strings in a small overflow array that the same table points to.
+public class CompactStringSet implements WordSet {
+    private static final double LOAD_FACTOR = 0.75;
+
+    private final byte[] arena;
+    private final int[] offsets;
+    private final int[] hashes;
+    // 0 is an empty slot, i + 1 is arena word i, -(j + 1) is overflow word j
+    private final int[] slots;
+    private final int slotMask;
+    private final String[] overflow;
+    private final int size;
+
+    private CompactStringSet(byte[] arena, int[] offsets, int[] hashes, int[] slots,
+                             String[] overflow, int size) {
+        this.arena = arena;
+        this.offsets = offsets;
+        this.hashes = hashes;
+        this.slots = slots;
+        this.slotMask = slots.length - 1;
+        this.overflow = overflow;
+        this.size = size;
+    }
+
+    // Builds the compact copy of a set. Later changes to the set are not reflected.
+    public static CompactStringSet of(GTUHashSet<String> set) {
+        // First pass: sizes of the arena and of the overflow array
+        int packed = 0;
+        int bytes = 0;
+        for (String word : set) {
+            if (isLatin1(word)) {
+                packed++;
+                bytes += word.length();
+            }
+        }
+
+        byte[] arena = new byte[bytes];
+        int[] offsets = new int[packed + 1];
+        int[] hashes = new int[packed];
+        String[] overflow = new String[set.size() - packed];
+        int count = 0;
+        int overflowCount = 0;
+        int position = 0;
+        for (String word : set) {
+            if (!isLatin1(word)) {
+                overflow[overflowCount++] = word;
+                continue;
+            }
+            int h = 0;
+            for (int i = 0; i < word.length(); i++) {
+                byte b = (byte) word.charAt(i);
+                arena[position++] = b;
+                h = 31 * h + (b & 0xFF);
+            }
+            hashes[count] = h;
+            offsets[++count] = position;
+        }
+
+        int capacity = 2;
+        while (capacity < set.size() / LOAD_FACTOR) {
+            capacity <<= 1;
+        }
+        int[] slots = new int[capacity];
+        // The set has no duplicates, so no words are compared while inserting
+        for (int i = 0; i < packed; i++) {
+            insert(slots, hashes[i], i + 1);
+        }
+        for (int j = 0; j < overflowCount; j++) {
+            insert(slots, overflow[j].hashCode(), -(j + 1));
+        }
+        return new CompactStringSet(arena, offsets, hashes, slots, overflow, set.size());
+    }
+
+    private static boolean isLatin1(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void insert(int[] slots, int hash, int entry) {
+        int mask = slots.length - 1;
+        int index = Hashing.mix(hash) & mask;
+        while (slots[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        slots[index] = entry;
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        int hash = Hashing.hashOf(word);
+        int index = Hashing.mix(hash) & slotMask;
+
+        while (true) {
+            int entry = slots[index];
+            if (entry == 0) {
+                return false;
+            }
+            if (entry > 0) {
+                if (hashes[entry - 1] == hash && matches(entry - 1, word)) {
+                    return true;
+                }
+            } else if (overflow[-entry - 1].contentEquals(word)) {
+                return true;
+            }
+            index = (index + 1) & slotMask;
+        }
+    }
+
+    @Override
+    public boolean contains(char[] chars, int length, int hash) {
+        int index = Hashing.mix(hash) & slotMask;
+
+        while (true) {
+            int entry = slots[index];
+            if (entry == 0) {
+                return false;
+            }
+            if (entry > 0) {
+                if (hashes[entry - 1] == hash && matches(entry - 1, chars, length)) {
+                    return true;
+                }
+            } else if (sameChars(overflow[-entry - 1], chars, length)) {
+                return true;
+            }
+            index = (index + 1) & slotMask;
+        }
+    }
+
+    // Compares arena word i with the chars of word
+    private boolean matches(int i, CharSequence word) {
+        int start = offsets[i];
+        int length = offsets[i + 1] - start;
+        if (word.length() != length) {
+            return false;
+        }
+        for (int k = 0; k < length; k++) {
+            if ((arena[start + k] & 0xFF) != word.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Compares arena word i with chars[0, length)
+    private boolean matches(int i, char[] chars, int length) {
+        int start = offsets[i];
+        if (offsets[i + 1] - start != length) {
+            return false;
+        }
+        for (int k = 0; k < length; k++) {
+            if ((arena[start + k] & 0xFF) != chars[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameChars(String word, char[] chars, int length) {
+        if (word.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Bytes used by the arena and the int tables, not counting overflow words
+    public long sizeInBytes() {
+        return arena.length + 4L * (offsets.length + hashes.length + slots.length);
+    }
+}
@@ -0,0 +1,198 @@
+import java.util.Arrays;
+
+// Compact trie of the dictionary words stored in flat arrays. Nodes are
+// numbered in breadth-first order, so the children of a node are
+// consecutive: they start at firstChild[node], there are childCount[node]
+// of them and their labels are sorted. Shared prefixes are stored once and
+// there is no object per word or per node.
+//
+// search() walks the trie with one row of the edit distance table per trie
+// level (optimal string alignment distance: insertion, deletion,
+// substitution and adjacent transposition). A branch is cut as soon as no
+// word below it can come within the requested distance, so prefixes that
+// lead nowhere are never expanded into candidate strings.
+public class DictionaryTrie implements WordSet {
+    private final char[] label;
+    private final int[] firstChild;
+    private final short[] childCount;
+    private final boolean[] terminal;
+    private final int size;
+    private final int maxDepth;
+
+    // Builds the trie from all words of the dictionary
+    public DictionaryTrie(GTUHashSet<String> dictionary) {
+        String[] words = new String[dictionary.size()];
+        int count = 0;
+        int totalChars = 0;
+        int longest = 0;
+        for (String word : dictionary) {
+            words[count++] = word;
+            totalChars += word.length();
+            longest = Math.max(longest, word.length());
+        }
+        Arrays.sort(words);
+
+        // At most one node per character plus the root
+        int capacity = totalChars + 1;
+        char[] labels = new char[capacity];
+        int[] first = new int[capacity];
+        short[] counts = new short[capacity];
+        boolean[] ends = new boolean[capacity];
+        // Range of words below each node, only needed while building
+        int[] low = new int[capacity];
+        int[] high = new int[capacity];
+        int[] depth = new int[capacity];
+
+        int nodes = 1;
+        low[0] = 0;
+        high[0] = count;
+
+        for (int node = 0; node < nodes; node++) {
+            int i = low[node];
+            int end = high[node];
+            int d = depth[node];
+
+            // Words that end here sort before the longer ones
+            while (i < end && words[i].length() == d) {
+                ends[node] = true;
+                i++;
+            }
+
+            first[node] = nodes;
+            while (i < end) {
+                char c = words[i].charAt(d);
+                int groupEnd = i + 1;
+                while (groupEnd < end && words[groupEnd].charAt(d) == c) {
+                    groupEnd++;
+                }
+                labels[nodes] = c;
+                low[nodes] = i;
+                high[nodes] = groupEnd;
+                depth[nodes] = d + 1;
+                nodes++;
+                counts[node]++;
+                i = groupEnd;
+            }
+        }
+
+        label = Arrays.copyOf(labels, nodes);
+        firstChild = Arrays.copyOf(first, nodes);
+        childCount = Arrays.copyOf(counts, nodes);
+        terminal = Arrays.copyOf(ends, nodes);
+        size = count;
+        maxDepth = longest;
+    }
+
+    // Returns the child of node with the given label, or -1
+    private int child(int node, char c) {
+        int from = firstChild[node];
+        int to = from + (childCount[node] & 0xffff) - 1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            if (label[mid] < c) {
+                from = mid + 1;
+            } else if (label[mid] > c) {
+                to = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        int node = 0;
+        for (int i = 0; i < word.length() && node != -1; i++) {
+            node = child(node, word.charAt(i));
+        }
+        return node != -1 && terminal[node];
+    }
+
+    // The trie needs no hash, it follows the chars directly
+    @Override
+    public boolean contains(char[] chars, int length, int hash) {
+        int node = 0;
+        for (int i = 0; i < length && node != -1; i++) {
+            node = child(node, chars[i]);
+        }
+        return node != -1 && terminal[node];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Number of trie nodes
+    public int nodeCount() {
+        return label.length;
+    }
+
+    // Returns every word within maxDistance edits of the query
+    public GTUHashSet<String> search(String query, int maxDistance) {
+        GTUHashSet<String> result = new GTUHashSet<>();
+        int n = query.length();
+
+        // rows[i] is the distance table row of the current prefix of length i
+        int[][] rows = new int[maxDepth + 1][n + 1];
+        for (int j = 0; j <= n; j++) {
+            rows[0][j] = j;
+        }
+        char[] prefix = new char[maxDepth];
+
+        if (terminal[0] && n <= maxDistance) {
+            result.add("");
+        }
+        int from = firstChild[0];
+        for (int c = 0; c < (childCount[0] & 0xffff); c++) {
+            walk(from + c, 1, query, maxDistance, rows, prefix, result);
+        }
+        return result;
+    }
+
+    // Fills the row of the node at the given depth and continues into its
+    // children while a word within maxDistance is still possible
+    private void walk(int node, int depth, String query, int maxDistance,
+                      int[][] rows, char[] prefix, GTUHashSet<String> result) {
+        int n = query.length();
+        char c = label[node];
+        prefix[depth - 1] = c;
+
+        int[] previous = rows[depth - 1];
+        int[] current = rows[depth];
+        current[0] = depth;
+        int rowMin = current[0];
+
+        for (int j = 1; j <= n; j++) {
+            int cost = query.charAt(j - 1) == c ? 0 : 1;
+            int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+
+            // Adjacent transposition
+            if (depth > 1 && j > 1 && c == query.charAt(j - 2) && prefix[depth - 2] == query.charAt(j - 1)) {
+                value = Math.min(value, rows[depth - 2][j - 2] + 1);
+            }
+            current[j] = value;
+            rowMin = Math.min(rowMin, value);
+        }
+
+        if (terminal[node] && current[n] <= maxDistance) {
+            result.add(new String(prefix, 0, depth));
+        }
+
+        // Deeper rows are at least min(this row, previous row + 1), so the
+        // branch can be cut once both are out of range
+        int previousMin = Integer.MAX_VALUE;
+        for (int j = 0; j <= n; j++) {
+            previousMin = Math.min(previousMin, previous[j]);
+        }
+        if (rowMin > maxDistance && previousMin + 1 > maxDistance) {
+            return;
+        }
+
+        int from = firstChild[node];
+        for (int k = 0; k < (childCount[node] & 0xffff); k++) {
+            walk(from + k, depth + 1, query, maxDistance, rows, prefix, result);
+        }
+    }
+}
@@ -8,11 +8,21 @@ public class Entry<K, V> {
     
     // A flag to indicate whether the entry has been logically deleted
     public boolean isDeleted; 
+
+    // The cached hash code of the key, so probing and rehashing never recompute it.
+    // The hash maps compare cached hashes first, so equals() only runs on a match.
+    public int hash;
     
     // Constructor to initialize the key and value, and set isDeleted to false
     public Entry(K key, V value) { 
+        this(key, value, key == null ? 0 : key.hashCode());
+    } 
+
+    // Constructor for callers that already computed the hash of the key
+    public Entry(K key, V value, int hash) { 
         this.key = key; 
         this.value = value; 
+        this.hash = hash;
         this.isDeleted = false; 
     } 
 }
\ No newline at end of file
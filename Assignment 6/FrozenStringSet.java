@@ -0,0 +1,192 @@
+// Immutable set of strings built once from a GTUHashSet<String>. Every word
+// gets its own slot through a perfect hash function (hash and displace): the
+// words are grouped into small buckets, and each bucket stores the seed that
+// sends its words to free slots. A lookup reads one seed and one slot, with
+// no probing, tombstones or Entry objects. All fields are final, so a
+// built set can be shared by any number of threads without locks.
+public class FrozenStringSet implements WordSet {
+    // Average number of words per bucket
+    private static final int BUCKET_SIZE = 4;
+    // Seeds tried for a bucket before its words go to the overflow list
+    private static final int MAX_SEED = 1 << 16;
+    // Seed value of a bucket whose words are in the overflow list
+    private static final int OVERFLOW = -1;
+
+    private final String[] words;
+    private final int[] hashes;
+    private final int[] seeds;
+    // Words that no seed could place, e.g. different words with the same hash code
+    private final String[] overflow;
+    private final int size;
+
+    private FrozenStringSet(String[] words, int[] hashes, int[] seeds, String[] overflow, int size) {
+        this.words = words;
+        this.hashes = hashes;
+        this.seeds = seeds;
+        this.overflow = overflow;
+        this.size = size;
+    }
+
+    // Builds the frozen copy of a set. Later changes to the set are not reflected.
+    public static FrozenStringSet of(GTUHashSet<String> set) {
+        int n = set.size();
+        String[] keys = new String[n];
+        int[] keyHashes = new int[n];
+        int count = 0;
+        for (String word : set) {
+            keys[count] = word;
+            keyHashes[count] = word.hashCode();
+            count++;
+        }
+
+        int capacity = Math.max(1, (int) (n / 0.85) + 1);
+        int bucketCount = Math.max(1, (n + BUCKET_SIZE - 1) / BUCKET_SIZE);
+
+        // Group the words by bucket (counting sort)
+        int[] bucketStart = new int[bucketCount + 1];
+        for (int i = 0; i < n; i++) {
+            bucketStart[bucketOf(keyHashes[i], bucketCount) + 1]++;
+        }
+        for (int b = 0; b < bucketCount; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        int[] members = new int[n];
+        int[] fill = new int[bucketCount];
+        for (int i = 0; i < n; i++) {
+            int b = bucketOf(keyHashes[i], bucketCount);
+            members[bucketStart[b] + fill[b]++] = i;
+        }
+
+        // Place the biggest buckets first, while most slots are still free
+        int maxBucket = 0;
+        for (int b = 0; b < bucketCount; b++) {
+            maxBucket = Math.max(maxBucket, fill[b]);
+        }
+        int[] order = new int[bucketCount];
+        int next = 0;
+        for (int length = maxBucket; length > 0; length--) {
+            for (int b = 0; b < bucketCount; b++) {
+                if (fill[b] == length) {
+                    order[next++] = b;
+                }
+            }
+        }
+
+        String[] table = new String[capacity];
+        int[] tableHashes = new int[capacity];
+        int[] bucketSeeds = new int[bucketCount];
+        int[] slots = new int[maxBucket];
+        String[] overflowWords = new String[n];
+        int overflowCount = 0;
+
+        for (int k = 0; k < next; k++) {
+            int b = order[k];
+            int start = bucketStart[b];
+            int length = fill[b];
+            int seed = 0;
+
+            for (; seed < MAX_SEED; seed++) {
+                if (tryPlace(members, start, length, keyHashes, seed, table, slots)) {
+                    break;
+                }
+            }
+
+            if (seed == MAX_SEED) {
+                bucketSeeds[b] = OVERFLOW;
+                for (int i = start; i < start + length; i++) {
+                    overflowWords[overflowCount++] = keys[members[i]];
+                }
+                continue;
+            }
+
+            bucketSeeds[b] = seed;
+            for (int i = 0; i < length; i++) {
+                table[slots[i]] = keys[members[start + i]];
+                tableHashes[slots[i]] = keyHashes[members[start + i]];
+            }
+        }
+
+        String[] overflowCopy = new String[overflowCount];
+        System.arraycopy(overflowWords, 0, overflowCopy, 0, overflowCount);
+        return new FrozenStringSet(table, tableHashes, bucketSeeds, overflowCopy, n);
+    }
+
+    // Checks whether the seed sends every word of the bucket to a distinct free
+    // slot, the slots are written to the slots array
+    private static boolean tryPlace(int[] members, int start, int length, int[] keyHashes,
+                                    int seed, String[] table, int[] slots) {
+        for (int i = 0; i < length; i++) {
+            int slot = slotOf(keyHashes[members[start + i]], seed, table.length);
+            if (table[slot] != null) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (slots[j] == slot) {
+                    return false;
+                }
+            }
+            slots[i] = slot;
+        }
+        return true;
+    }
+
+    private static int bucketOf(int hash, int bucketCount) {
+        return (Hashing.mix(hash) & 0x7fffffff) % bucketCount;
+    }
+
+    private static int slotOf(int hash, int seed, int capacity) {
+        return (Hashing.mix(hash ^ (seed * 0x9e3779b9 + 0x7f4a7c15)) & 0x7fffffff) % capacity;
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        int hash = Hashing.hashOf(word);
+        int seed = seeds[bucketOf(hash, seeds.length)];
+
+        if (seed == OVERFLOW) {
+            for (String candidate : overflow) {
+                if (candidate.contentEquals(word)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int slot = slotOf(hash, seed, words.length);
+        return hashes[slot] == hash && words[slot] != null && words[slot].contentEquals(word);
+    }
+
+    @Override
+    public boolean contains(char[] chars, int length, int hash) {
+        int seed = seeds[bucketOf(hash, seeds.length)];
+
+        if (seed == OVERFLOW) {
+            for (String candidate : overflow) {
+                if (sameChars(candidate, chars, length)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int slot = slotOf(hash, seed, words.length);
+        return hashes[slot] == hash && words[slot] != null && sameChars(words[slot], chars, length);
+    }
+
+    private static boolean sameChars(String word, char[] chars, int length) {
+        if (word.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
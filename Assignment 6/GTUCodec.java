@@ -0,0 +1,134 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Turns keys or values into bytes for GTUHashMap snapshots and back.
+// write() puts the value at the buffer's position and may throw
+// BufferOverflowException when it does not fit; the snapshot then retries
+// with a bigger buffer. read() gets the length write() used and must leave
+// the buffer's position after those bytes.
+// Built-in codecs exist for String (UTF-8) and the boxed primitives.
+public interface GTUCodec<T> {
+
+    void write(T value, ByteBuffer buffer);
+
+    T read(ByteBuffer buffer, int length);
+
+    GTUCodec<String> STRING = new GTUCodec<String>() {
+        @Override
+        public void write(String value, ByteBuffer buffer) {
+            buffer.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String read(ByteBuffer buffer, int length) {
+            String value;
+            if (buffer.hasArray()) {
+                // Decoded straight from the buffer's array, without a copy
+                value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                        StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return value;
+        }
+    };
+
+    GTUCodec<Integer> INTEGER = new GTUCodec<Integer>() {
+        @Override
+        public void write(Integer value, ByteBuffer buffer) {
+            buffer.putInt(value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int length) {
+            return buffer.getInt();
+        }
+    };
+
+    GTUCodec<Long> LONG = new GTUCodec<Long>() {
+        @Override
+        public void write(Long value, ByteBuffer buffer) {
+            buffer.putLong(value);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int length) {
+            return buffer.getLong();
+        }
+    };
+
+    GTUCodec<Short> SHORT = new GTUCodec<Short>() {
+        @Override
+        public void write(Short value, ByteBuffer buffer) {
+            buffer.putShort(value);
+        }
+
+        @Override
+        public Short read(ByteBuffer buffer, int length) {
+            return buffer.getShort();
+        }
+    };
+
+    GTUCodec<Byte> BYTE = new GTUCodec<Byte>() {
+        @Override
+        public void write(Byte value, ByteBuffer buffer) {
+            buffer.put(value);
+        }
+
+        @Override
+        public Byte read(ByteBuffer buffer, int length) {
+            return buffer.get();
+        }
+    };
+
+    GTUCodec<Character> CHARACTER = new GTUCodec<Character>() {
+        @Override
+        public void write(Character value, ByteBuffer buffer) {
+            buffer.putChar(value);
+        }
+
+        @Override
+        public Character read(ByteBuffer buffer, int length) {
+            return buffer.getChar();
+        }
+    };
+
+    GTUCodec<Boolean> BOOLEAN = new GTUCodec<Boolean>() {
+        @Override
+        public void write(Boolean value, ByteBuffer buffer) {
+            buffer.put((byte) (value ? 1 : 0));
+        }
+
+        @Override
+        public Boolean read(ByteBuffer buffer, int length) {
+            return buffer.get() != 0;
+        }
+    };
+
+    GTUCodec<Float> FLOAT = new GTUCodec<Float>() {
+        @Override
+        public void write(Float value, ByteBuffer buffer) {
+            buffer.putFloat(value);
+        }
+
+        @Override
+        public Float read(ByteBuffer buffer, int length) {
+            return buffer.getFloat();
+        }
+    };
+
+    GTUCodec<Double> DOUBLE = new GTUCodec<Double>() {
+        @Override
+        public void write(Double value, ByteBuffer buffer) {
+            buffer.putDouble(value);
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int length) {
+            return buffer.getDouble();
+        }
+    };
+}
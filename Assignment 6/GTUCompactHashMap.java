@@ -0,0 +1,237 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Hash map that keeps its entries in dense arrays in insertion order, with
+// a separate sparse index table of ints pointing into them (0 is an empty
+// index slot, e + 1 points to entry e). Iteration reads the dense arrays
+// from the start, so it costs O(size) instead of O(capacity) and always
+// returns the keys in the order they were first inserted.
+//
+// The index uses linear probing with backward shift deletion, so removals
+// leave no tombstones in it. A removed entry leaves a hole (null key) in
+// the dense arrays to keep the order; once there are more holes than live
+// entries they are squeezed out, so iteration never reads more than
+// 2 * size + 1 entries.
+// Use new GTUHashSet<>(new GTUCompactHashMap<>()) for an insertion-ordered set.
+public class GTUCompactHashMap <K,V> implements GTUMap<K,V>{
+    private static final int DEFAULT_CAPACITY = 8;
+
+    // At least two index slots per entry slot, so the index is at most half full
+    private int[] index;
+    private int indexMask;
+    // Dense entries, [0, count) is in use, a null key is a removed entry
+    private Object[] keys;
+    private Object[] vals;
+    private int[] hashes;
+    private int count;
+    private int size;
+    private int numOfCollision;
+
+    // Constructor for GTUCompactHashMap
+    public GTUCompactHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Constructor for a map that will hold expectedSize entries without growing
+    public GTUCompactHashMap(int expectedSize) {
+        allocate(Math.max(DEFAULT_CAPACITY, expectedSize));
+        size = 0;
+        numOfCollision = 0;
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        vals = new Object[capacity];
+        hashes = new int[capacity];
+        count = 0;
+        int indexLength = 2;
+        while (indexLength < 2L * capacity) {
+            indexLength <<= 1;
+        }
+        index = new int[indexLength];
+        indexMask = indexLength - 1;
+    }
+
+    // Returns the index slot pointing to the key, or the empty index slot
+    // that ends its probe sequence
+    private int findSlot(Object key, int hash) {
+        int slot = Hashing.mix(hash) & indexMask;
+        while (true) {
+            int e = index[slot] - 1;
+            if (e == -1 || (hashes[e] == hash && keys[e].equals(key))) {
+                return slot;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+    }
+
+    // Points a free index slot at entry e, which is known not to be indexed
+    private void indexEntry(int e) {
+        int slot = Hashing.mix(hashes[e]) & indexMask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & indexMask;
+        }
+        index[slot] = e + 1;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        int hash = key.hashCode();
+        int slot = findSlot(key, hash);
+        if (index[slot] != 0) {
+            vals[index[slot] - 1] = value;
+            return;
+        }
+
+        if (count == keys.length) {
+            // Squeezing out the holes is enough if at least half are holes,
+            // otherwise the entries move to arrays twice as big
+            resize(size <= count / 2 ? keys.length : keys.length * 2);
+            slot = findSlot(key, hash);
+        }
+
+        for (int s = Hashing.mix(hash) & indexMask; s != slot; s = (s + 1) & indexMask) {
+            numOfCollision++;
+        }
+        keys[count] = key;
+        vals[count] = value;
+        hashes[count] = hash;
+        index[slot] = count + 1;
+        count++;
+        size++;
+    }
+
+    // Moves the live entries, still in order, to arrays of the given
+    // capacity and rebuilds the index from the cached hashes
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int[] oldHashes = hashes;
+        int oldCount = count;
+
+        boolean inPlace = capacity == keys.length;
+        if (inPlace) {
+            Arrays.fill(index, 0);
+            count = 0;
+        } else {
+            allocate(capacity);
+        }
+        for (int e = 0; e < oldCount; e++) {
+            if (oldKeys[e] != null) {
+                keys[count] = oldKeys[e];
+                vals[count] = oldVals[e];
+                hashes[count] = oldHashes[e];
+                indexEntry(count);
+                count++;
+            }
+        }
+        // Entries that moved down in place leave stale references behind
+        if (inPlace) {
+            Arrays.fill(keys, count, oldCount, null);
+            Arrays.fill(vals, count, oldCount, null);
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > keys.length) {
+            resize(expectedSize);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int e = index[findSlot(key, key.hashCode())] - 1;
+        return e == -1 ? null : (V) vals[e];
+    }
+
+    @Override
+    public void remove(K key) {
+        int slot = findSlot(key, key.hashCode());
+        int e = index[slot] - 1;
+        if (e == -1) {
+            return;
+        }
+
+        keys[e] = null;
+        vals[e] = null;
+        size--;
+        deleteSlot(slot);
+
+        // Holes at the end are simply dropped
+        while (count > 0 && keys[count - 1] == null) {
+            count--;
+        }
+        if (count - size > size) {
+            resize(keys.length);
+        }
+    }
+
+    // Empties an index slot and moves later slots of the cluster back into
+    // it when their probe sequence passes it, so no tombstone is needed
+    private void deleteSlot(int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & indexMask;
+            if (index[slot] == 0) {
+                break;
+            }
+            int home = Hashing.mix(hashes[index[slot] - 1]) & indexMask;
+            // The entry may move to the hole if its home is not in (hole, slot]
+            if (((slot - home) & indexMask) >= ((slot - hole) & indexMask)) {
+                index[hole] = index[slot];
+                hole = slot;
+            }
+        }
+        index[hole] = 0;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return index[findSlot(key, key.hashCode())] != 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Entry slots of the dense arrays, the index has at least twice as many
+    @Override
+    public int capacity() {
+        return keys.length;
+    }
+
+    // Returns an iterator over the keys in insertion order
+    @Override
+    public Iterator<K> keyIterator() {
+        return new Iterator<K>() {
+
+            // Current entry
+            private int e = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (e < count && keys[e] == null) {
+                    e++;
+                }
+                return e < count;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public K next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return (K) keys[e++];
+            }
+        };
+    }
+
+    // Number of occupied index slots passed while inserting new keys
+    @Override
+    public int getNumOfCol() {
+        return numOfCollision;
+    }
+}
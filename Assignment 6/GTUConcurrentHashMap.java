@@ -0,0 +1,304 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Thread-safe hash map with the same open addressing and quadratic probing
+// as GTUHashMap.
+// - Reads take no locks: they walk the current table through volatile reads.
+// - Writes lock one of STRIPES locks chosen by the key's hash, so writers of
+//   different keys rarely wait for each other. A new key claims its slot with
+//   a compare-and-set, because probe sequences of different stripes overlap.
+// - A removed key keeps its slot with a null value until the next resize.
+// - Resizing takes every stripe lock, builds the new table aside and then
+//   publishes it. Readers keep using the old table meanwhile.
+// Keys and values can not be null.
+public class GTUConcurrentHashMap <K,V> implements GTUMap<K,V>{
+    private static final int STRIPES = 16;
+
+    // A key's slot in the table. The value is null once the key is removed.
+    private static final class Node<K,V> {
+        final K key;
+        final int hash;
+        volatile V value;
+
+        Node(K key, int hash, V value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    private volatile AtomicReferenceArray<Node<K,V>> table;
+    // Claimed slots of the current table, including removed keys
+    private final AtomicInteger used;
+    // Live entries per stripe, only changed while holding that stripe's lock
+    private final AtomicIntegerArray counts;
+    private final ReentrantLock[] locks;
+    private final LongAdder numOfCollision;
+
+    // Constructor for GTUConcurrentHashMap
+    public GTUConcurrentHashMap() {
+        this(0);
+    }
+
+    // Constructor for a map that will hold about expectedSize entries without resizing
+    public GTUConcurrentHashMap(int expectedSize) {
+        table = new AtomicReferenceArray<>(Hashing.capacityFor(expectedSize));
+        used = new AtomicInteger();
+        counts = new AtomicIntegerArray(STRIPES);
+        locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        numOfCollision = new LongAdder();
+    }
+
+    private static int stripe(int hash) {
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    // Lock-free lookup of the node of a key in the given table
+    private Node<K,V> findNode(AtomicReferenceArray<Node<K,V>> t, Object key, int hash) {
+        int length = t.length();
+        int initialIndex = (hash & 0x7fffffff) % length;
+        int index = initialIndex;
+
+        for (int probe = 1; probe <= length; probe++) {
+            Node<K,V> node = t.get(index);
+            if (node == null) {
+                return null;
+            }
+            if (node.hash == hash && node.key.equals(key)) {
+                return node;
+            }
+            // Quadratic probing
+            index = (int) ((initialIndex + (long) probe * probe) % length);
+        }
+        return null;
+    }
+
+    @Override
+    public V get(K key) {
+        Node<K,V> node = findNode(table, key, key.hashCode());
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        write(key, value, false);
+    }
+
+    // Maps the key only if it has no value yet. Returns the existing value,
+    // or null if this call inserted the mapping.
+    public V putIfAbsent(K key, V value) {
+        return write(key, value, true);
+    }
+
+    // Shared body of put and putIfAbsent, returns the previous value
+    private V write(K key, V value, boolean onlyIfAbsent) {
+        if (value == null) {
+            throw new NullPointerException("GTUConcurrentHashMap does not allow null values");
+        }
+
+        int hash = key.hashCode();
+        int s = stripe(hash);
+
+        while (true) {
+            V previous = null;
+            boolean full = false;
+            boolean needsResize = false;
+            int length;
+
+            locks[s].lock();
+            try {
+                AtomicReferenceArray<Node<K,V>> t = table;
+                length = t.length();
+                int initialIndex = (hash & 0x7fffffff) % length;
+                int index = initialIndex;
+                int probe = 1;
+
+                while (true) {
+                    Node<K,V> node = t.get(index);
+
+                    // Empty slot: claim it. Another stripe may win the race, in
+                    // which case the slot is looked at again.
+                    if (node == null) {
+                        if (t.compareAndSet(index, null, new Node<>(key, hash, value))) {
+                            counts.incrementAndGet(s);
+                            needsResize = used.incrementAndGet() >= length * Hashing.DEFAULT_LOAD_FACTOR;
+                            break;
+                        }
+                        continue;
+                    }
+
+                    // Same key: only writers of this stripe change it, and we hold the lock
+                    if (node.hash == hash && node.key.equals(key)) {
+                        previous = node.value;
+                        if (previous == null) {
+                            counts.incrementAndGet(s);
+                            node.value = value;
+                        }
+                        else if (!onlyIfAbsent) {
+                            node.value = value;
+                        }
+                        break;
+                    }
+
+                    numOfCollision.increment();
+                    // Quadratic probing
+                    index = (int) ((initialIndex + (long) probe * probe) % length);
+                    probe++;
+
+                    if (probe > length) {
+                        full = true;
+                        break;
+                    }
+                }
+            } finally {
+                locks[s].unlock();
+            }
+
+            // Resizing needs every stripe lock, so it runs after ours is released
+            if (full || needsResize) {
+                resize(length, 0);
+            }
+            // The probe sequence was full, retry against the grown table
+            if (!full) {
+                return previous;
+            }
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        int hash = key.hashCode();
+        int s = stripe(hash);
+
+        locks[s].lock();
+        try {
+            Node<K,V> node = findNode(table, key, hash);
+            if (node != null && node.value != null) {
+                // The slot stays claimed by the key until the next resize
+                node.value = null;
+                counts.decrementAndGet(s);
+            }
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    // Moves the live entries into a new table. expectedLength is the capacity
+    // the caller saw, so concurrent callers resize only once. A newCapacity
+    // of 0 sizes the table for twice the live entries, which also drops the
+    // slots of removed keys.
+    private void resize(int expectedLength, int newCapacity) {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i].lock();
+        }
+        try {
+            AtomicReferenceArray<Node<K,V>> oldTable = table;
+            if (oldTable.length() != expectedLength) {
+                return;
+            }
+            if (newCapacity == 0) {
+                newCapacity = Hashing.capacityFor(2 * size());
+            }
+
+            // Built aside with plain writes, no writer can run while all locks are held
+            AtomicReferenceArray<Node<K,V>> newTable = new AtomicReferenceArray<>(newCapacity);
+            int live = 0;
+            for (int i = 0; i < oldTable.length(); i++) {
+                Node<K,V> node = oldTable.get(i);
+                if (node == null || node.value == null) {
+                    continue;
+                }
+                int initialIndex = (node.hash & 0x7fffffff) % newCapacity;
+                int index = initialIndex;
+                int probe = 1;
+                while (newTable.get(index) != null) {
+                    index = (int) ((initialIndex + (long) probe * probe) % newCapacity);
+                    probe++;
+                }
+                // Nodes are shared with the old table, readers see the same values
+                newTable.set(index, node);
+                live++;
+            }
+
+            used.set(live);
+            table = newTable;
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        int capacity = Hashing.capacityFor(expectedSize);
+        int length = table.length();
+        if (capacity > length) {
+            resize(length, capacity);
+        }
+    }
+
+    // Sum of the stripe counters, exact when no write is in progress
+    @Override
+    public int size() {
+        int total = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    @Override
+    public int capacity() {
+        return table.length();
+    }
+
+    // Weakly consistent: walks the table current at creation and returns the
+    // keys that still have a value when they are reached
+    @Override
+    public Iterator<K> keyIterator() {
+        return new Iterator<K>() {
+
+            private final AtomicReferenceArray<Node<K,V>> t = table;
+            private int index = 0;
+            private K nextKey = null;
+
+            @Override
+            public boolean hasNext() {
+                while (nextKey == null && index < t.length()) {
+                    Node<K,V> node = t.get(index++);
+                    if (node != null && node.value != null) {
+                        nextKey = node.key;
+                    }
+                }
+                return nextKey != null;
+            }
+
+            @Override
+            public K next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                K key = nextKey;
+                nextKey = null;
+                return key;
+            }
+        };
+    }
+
+    @Override
+    public int getNumOfCol() {
+        return numOfCollision.intValue();
+    }
+}
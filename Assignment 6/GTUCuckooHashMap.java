@@ -0,0 +1,350 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Hash map using bucketized cuckoo hashing. Every key has two candidate
+// buckets of BUCKET_SIZE slots, chosen by two different mixes of its hash,
+// and is always stored in one of them or in a small stash. get, containsKey
+// and remove therefore look at no more than 2 * BUCKET_SIZE slots plus the
+// stash, however full the table is; there is no probe sequence and no
+// tombstone.
+//
+// Inserting into two full buckets moves ("kicks") a resident to its other
+// bucket, which may kick another one, up to MAX_KICKS times. A key that is
+// still left over goes into the stash, and the table doubles when the stash
+// is full.
+//
+// Keys with the same hashCode() always share both buckets, so only
+// 2 * BUCKET_SIZE + STASH_SIZE of them fit. More such keys than that make
+// the stash grow instead of the table, and lookups of those keys lose the
+// fixed bound.
+// Use new GTUHashSet<>(new GTUCuckooHashMap<>()) for a cuckoo hash set.
+public class GTUCuckooHashMap <K,V> implements GTUMap<K,V>{
+    private static final int BUCKET_SIZE = 4;
+    private static final int STASH_SIZE = 4;
+    private static final int MAX_KICKS = 256;
+    // Two choices of four slots stay insertable up to about 95% full
+    private static final double LOAD_FACTOR = 0.9;
+
+    // Slot s belongs to bucket s / BUCKET_SIZE, a null key marks an empty slot
+    private Object[] keys;
+    private Object[] vals;
+    private int[] hashes;
+    private int bucketMask;
+
+    private Object[] stashKeys;
+    private Object[] stashVals;
+    private int[] stashHashes;
+    private int stashSize;
+
+    private int size;
+    private int numOfCollision;
+    // xorshift state for picking which resident to kick
+    private int random = 0x2545f491;
+
+    // Constructor for GTUCuckooHashMap
+    public GTUCuckooHashMap() {
+        this(0);
+    }
+
+    // Constructor for a map that will hold about expectedSize entries without growing
+    public GTUCuckooHashMap(int expectedSize) {
+        allocate(bucketsFor(expectedSize));
+        size = 0;
+        numOfCollision = 0;
+    }
+
+    // Power of two number of buckets (at least 4) keeping expectedSize entries below the load factor
+    private static int bucketsFor(int expectedSize) {
+        int needed = (int) Math.ceil(expectedSize / LOAD_FACTOR / BUCKET_SIZE);
+        int buckets = 4;
+        while (buckets < needed) {
+            buckets <<= 1;
+        }
+        return buckets;
+    }
+
+    private void allocate(int buckets) {
+        keys = new Object[buckets * BUCKET_SIZE];
+        vals = new Object[buckets * BUCKET_SIZE];
+        hashes = new int[buckets * BUCKET_SIZE];
+        bucketMask = buckets - 1;
+        stashKeys = new Object[STASH_SIZE];
+        stashVals = new Object[STASH_SIZE];
+        stashHashes = new int[STASH_SIZE];
+        stashSize = 0;
+    }
+
+    private int firstBucket(int hash) {
+        return Hashing.mix(hash) & bucketMask;
+    }
+
+    // Second bucket from an independent mix, never the same as the first
+    private int secondBucket(int hash, int first) {
+        int second = Hashing.mix(hash * 0x9e3779b9 + 0x7f4a7c15) & bucketMask;
+        return second == first ? (first + 1) & bucketMask : second;
+    }
+
+    // Returns the table slot holding the key, or -1
+    private int find(Object key, int hash) {
+        int first = firstBucket(hash);
+        int slot = findInBucket(first, key, hash);
+        if (slot == -1) {
+            slot = findInBucket(secondBucket(hash, first), key, hash);
+        }
+        return slot;
+    }
+
+    private int findInBucket(int bucket, Object key, int hash) {
+        int start = bucket * BUCKET_SIZE;
+        for (int s = start; s < start + BUCKET_SIZE; s++) {
+            if (hashes[s] == hash && keys[s] != null && keys[s].equals(key)) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    // Returns the stash position of the key, or -1
+    private int findInStash(Object key, int hash) {
+        for (int i = 0; i < stashSize; i++) {
+            if (stashHashes[i] == hash && stashKeys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Stores the entry in a free slot of the bucket, if there is one
+    private boolean place(int bucket, Object key, Object value, int hash) {
+        int start = bucket * BUCKET_SIZE;
+        for (int s = start; s < start + BUCKET_SIZE; s++) {
+            if (keys[s] == null) {
+                keys[s] = key;
+                vals[s] = value;
+                hashes[s] = hash;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int nextRandom() {
+        random ^= random << 13;
+        random ^= random >>> 17;
+        random ^= random << 5;
+        return random;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        int hash = key.hashCode();
+
+        // Existing key: update the value in place
+        int slot = find(key, hash);
+        if (slot != -1) {
+            vals[slot] = value;
+            return;
+        }
+        int stashIndex = findInStash(key, hash);
+        if (stashIndex != -1) {
+            stashVals[stashIndex] = value;
+            return;
+        }
+
+        if (size + 1 > LOAD_FACTOR * keys.length) {
+            rehash((bucketMask + 1) * 2);
+        }
+        insert(key, value, hash);
+        size++;
+    }
+
+    // Stores a key that is not in the map yet
+    private void insert(Object key, Object value, int hash) {
+        int first = firstBucket(hash);
+        int second = secondBucket(hash, first);
+        if (place(first, key, value, hash) || place(second, key, value, hash)) {
+            return;
+        }
+
+        // Both buckets are full: kick a random resident to its other bucket
+        // and carry on with it, until some key finds a free slot
+        int bucket = (nextRandom() & 1) == 0 ? first : second;
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            int s = bucket * BUCKET_SIZE + (nextRandom() & (BUCKET_SIZE - 1));
+            Object kickedKey = keys[s];
+            Object kickedValue = vals[s];
+            int kickedHash = hashes[s];
+            keys[s] = key;
+            vals[s] = value;
+            hashes[s] = hash;
+            key = kickedKey;
+            value = kickedValue;
+            hash = kickedHash;
+            numOfCollision++;
+
+            int kickedFirst = firstBucket(hash);
+            bucket = kickedFirst == bucket ? secondBucket(hash, kickedFirst) : kickedFirst;
+            if (place(bucket, key, value, hash)) {
+                return;
+            }
+        }
+
+        // The table is too full, or the key shares its buckets with too many
+        // keys of the same hash. Growing only helps in the first case.
+        if (stashSize == stashKeys.length && size >= keys.length / 2) {
+            rehash((bucketMask + 1) * 2);
+            insert(key, value, hash);
+            return;
+        }
+        if (stashSize == stashKeys.length) {
+            stashKeys = Arrays.copyOf(stashKeys, stashSize * 2);
+            stashVals = Arrays.copyOf(stashVals, stashSize * 2);
+            stashHashes = Arrays.copyOf(stashHashes, stashSize * 2);
+        }
+        stashKeys[stashSize] = key;
+        stashVals[stashSize] = value;
+        stashHashes[stashSize] = hash;
+        stashSize++;
+    }
+
+    // Moves every entry into a table with the given number of buckets
+    private void rehash(int buckets) {
+        Object[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int[] oldHashes = hashes;
+        Object[] oldStashKeys = stashKeys;
+        Object[] oldStashVals = stashVals;
+        int[] oldStashHashes = stashHashes;
+        int oldStashSize = stashSize;
+
+        allocate(buckets);
+        // The cached hashes are reused, hashCode() is not called again
+        for (int s = 0; s < oldKeys.length; s++) {
+            if (oldKeys[s] != null) {
+                insert(oldKeys[s], oldVals[s], oldHashes[s]);
+            }
+        }
+        for (int i = 0; i < oldStashSize; i++) {
+            insert(oldStashKeys[i], oldStashVals[i], oldStashHashes[i]);
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        int buckets = bucketsFor(expectedSize);
+        if (buckets > bucketMask + 1) {
+            rehash(buckets);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int hash = key.hashCode();
+        int slot = find(key, hash);
+        if (slot != -1) {
+            return (V) vals[slot];
+        }
+        if (stashSize > 0) {
+            int stashIndex = findInStash(key, hash);
+            if (stashIndex != -1) {
+                return (V) stashVals[stashIndex];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void remove(K key) {
+        int hash = key.hashCode();
+        int slot = find(key, hash);
+        if (slot != -1) {
+            keys[slot] = null;
+            vals[slot] = null;
+            size--;
+            // The freed slot may let a stashed key back into the table
+            unstash();
+            return;
+        }
+
+        int stashIndex = findInStash(key, hash);
+        if (stashIndex != -1) {
+            removeFromStash(stashIndex);
+            size--;
+        }
+    }
+
+    private void unstash() {
+        for (int i = stashSize - 1; i >= 0; i--) {
+            int first = firstBucket(stashHashes[i]);
+            if (place(first, stashKeys[i], stashVals[i], stashHashes[i])
+                    || place(secondBucket(stashHashes[i], first), stashKeys[i], stashVals[i], stashHashes[i])) {
+                removeFromStash(i);
+            }
+        }
+    }
+
+    // Fills the gap with the last stash entry
+    private void removeFromStash(int index) {
+        stashSize--;
+        stashKeys[index] = stashKeys[stashSize];
+        stashVals[index] = stashVals[stashSize];
+        stashHashes[index] = stashHashes[stashSize];
+        stashKeys[stashSize] = null;
+        stashVals[stashSize] = null;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        int hash = key.hashCode();
+        return find(key, hash) != -1 || (stashSize > 0 && findInStash(key, hash) != -1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Slots of the buckets and of the stash
+    @Override
+    public int capacity() {
+        return keys.length + stashKeys.length;
+    }
+
+    // Number of keys that did not fit into their buckets
+    public int stashSize() {
+        return stashSize;
+    }
+
+    @Override
+    public Iterator<K> keyIterator() {
+        return new Iterator<K>() {
+
+            // Position in the table, then in the stash
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (index < keys.length && keys[index] == null) {
+                    index++;
+                }
+                return index < keys.length + stashSize;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public K next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int i = index++;
+                return (K) (i < keys.length ? keys[i] : stashKeys[i - keys.length]);
+            }
+        };
+    }
+
+    // Number of residents moved to their other bucket during insertions
+    @Override
+    public int getNumOfCol() {
+        return numOfCollision;
+    }
+}
@@ -0,0 +1,253 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Hash map with the same quadratic probing scheme as GTUHashMap, but without
+// Entry objects: keys, values, cached hashes and slot states live in
+// parallel arrays.
+public class GTUFlatHashMap <K,V> implements GTUMap<K,V>{
+    // Slot states kept in the control array
+    private static final byte EMPTY = 0;
+    private static final byte FULL = 1;
+    private static final byte DELETED = 2;
+
+    private Object[] keys;
+    private Object[] vals;
+    private int[] hashes;
+    private byte[] ctrl;
+    private int size;
+    private int deletedSize;
+    private int numOfCollision;
+
+    // Constructor for GTUFlatHashMap
+    public GTUFlatHashMap() {
+        // Same default capacity as GTUHashMap
+        keys = new Object[Hashing.DEFAULT_CAPACITY];
+        vals = new Object[Hashing.DEFAULT_CAPACITY];
+        hashes = new int[Hashing.DEFAULT_CAPACITY];
+        ctrl = new byte[Hashing.DEFAULT_CAPACITY];
+        size = 0;
+        deletedSize = 0;
+        numOfCollision = 0;
+    }
+
+    // Constructor for a map that will hold about expectedSize entries without rehashing
+    public GTUFlatHashMap(int expectedSize) {
+        int capacity = Hashing.capacityFor(expectedSize);
+        keys = new Object[capacity];
+        vals = new Object[capacity];
+        hashes = new int[capacity];
+        ctrl = new byte[capacity];
+        size = 0;
+        deletedSize = 0;
+        numOfCollision = 0;
+    }
+
+    // Returns the slot holding the key, or -1 if the key is absent
+    private int find(Object key, int hash) {
+        int index = (hash & 0x7fffffff) % ctrl.length;
+        int initialIndex = index;
+        int probe = 1;
+
+        // Tombstones do not end the search, only an empty slot does
+        while (ctrl[index] != EMPTY) {
+            if (ctrl[index] == FULL && hashes[index] == hash && keys[index].equals(key)) {
+                return index;
+            }
+            // Quadratic probing reaches (p + 1) / 2 distinct slots of a prime
+            // table, later probes only repeat them (and probe * probe overflows)
+            if (probe > ctrl.length / 2) {
+                return -1;
+            }
+            index = (initialIndex + probe * probe) % ctrl.length;
+            probe++;
+        }
+        return -1;
+    }
+
+    // Returns the slot where a new key should be stored (the first tombstone
+    // or empty slot on its probe sequence), or -1 if none was reached
+    private int findFree(int hash, boolean isPut) {
+        int index = (hash & 0x7fffffff) % ctrl.length;
+        int initialIndex = index;
+        int probe = 1;
+
+        while (ctrl[index] == FULL) {
+            if (isPut) {
+                numOfCollision++;
+            }
+            if (probe > ctrl.length / 2) {
+                return -1;
+            }
+            index = (initialIndex + probe * probe) % ctrl.length;
+            probe++;
+        }
+        return index;
+    }
+
+    private void rehash() {
+        // Mostly tombstones (many removes): rebuild at the same capacity, as
+        // GTUHashMap does, growing here would enlarge the table forever
+        // under steady churn
+        if (size < ctrl.length * Hashing.DEFAULT_LOAD_FACTOR / 2) {
+            rehash(ctrl.length);
+            return;
+        }
+        // Calculate new capacity as the next prime number
+        rehash(Hashing.nextPrime(ctrl.length * 2 + 1));
+    }
+
+    private void rehash(int newCapacity) {
+        Object[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int[] oldHashes = hashes;
+        byte[] oldCtrl = ctrl;
+
+        // A key that reaches no free slot makes the new table grow and the
+        // keys are placed again
+        while (!moveAll(oldKeys, oldVals, oldHashes, oldCtrl, newCapacity)) {
+            newCapacity = Hashing.nextPrime(newCapacity * 2 + 1);
+        }
+    }
+
+    // Moves the live entries of the old arrays into new arrays of the given
+    // capacity, false if one of them found no free slot
+    private boolean moveAll(Object[] oldKeys, Object[] oldVals, int[] oldHashes, byte[] oldCtrl, int capacity) {
+        keys = new Object[capacity];
+        vals = new Object[capacity];
+        hashes = new int[capacity];
+        ctrl = new byte[capacity];
+        deletedSize = 0;
+
+        // Live keys are unique, so they go straight into the first free slot
+        // found with their cached hash
+        for (int i = 0; i < oldCtrl.length; i++) {
+            if (oldCtrl[i] == FULL) {
+                int index = findFree(oldHashes[i], false);
+                if (index == -1) {
+                    return false;
+                }
+                keys[index] = oldKeys[i];
+                vals[index] = oldVals[i];
+                hashes[index] = oldHashes[i];
+                ctrl[index] = FULL;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        int hash = key.hashCode();
+        int index = find(key, hash);
+
+        // Existing key - update value
+        if (index != -1) {
+            vals[index] = value;
+            return;
+        }
+
+        index = findFree(hash, true);
+
+        // No free slot reachable on the probe sequence, grow and retry
+        if (index == -1) {
+            rehash();
+            put(key, value);
+            return;
+        }
+
+        if (ctrl[index] == DELETED) {
+            deletedSize--;
+        }
+        keys[index] = key;
+        vals[index] = value;
+        hashes[index] = hash;
+        ctrl[index] = FULL;
+        size++;
+
+        // Check if rehashing is needed (including tombstones in load factor)
+        double loadFactor = (double) (size + deletedSize) / ctrl.length;
+        if (loadFactor >= Hashing.DEFAULT_LOAD_FACTOR) {
+            rehash();
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        int capacity = Hashing.capacityFor(expectedSize);
+        if (capacity > ctrl.length) {
+            rehash(capacity);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int index = find(key, key.hashCode());
+        if (index == -1) {
+            return null;
+        }
+        return (V) vals[index];
+    }
+
+    @Override
+    public void remove(K key) {
+        int index = find(key, key.hashCode());
+        if (index == -1) {
+            return;
+        }
+
+        // Leave a tombstone and drop the references so they can be collected
+        ctrl[index] = DELETED;
+        keys[index] = null;
+        vals[index] = null;
+        deletedSize++;
+        size--;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return find(key, key.hashCode()) != -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return ctrl.length;
+    }
+
+    @Override
+    public Iterator<K> keyIterator() {
+        return new Iterator<K>() {
+
+            // Current position in the control array
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (index < ctrl.length) {
+                    if (ctrl[index] == FULL) {
+                        return true;
+                    }
+                    index++;
+                }
+                return false;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public K next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return (K) keys[index++];
+            }
+        };
+    }
+
+    @Override
+    public int getNumOfCol() {
+        return numOfCollision;
+    }
+}
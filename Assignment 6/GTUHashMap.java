@@ -1,12 +1,38 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 
-public class GTUHashMap <K,V>{
+public class GTUHashMap <K,V> implements GTUMap<K,V>{
     private Entry<K,V>[] table;
     private int size;
     private int deletedSize;
     private int numOfCollision;
+    // Share of the table (live entries and tombstones) that triggers a rehash
+    private final double loadFactor;
+    // Share of tombstones after which remove() rebuilds the table in place
+    private double maxDeletedRatio;
+    // Share of live entries below which remove() shrinks the table, 0 never shrinks
+    private double minLoad;
+    // The table never shrinks below the capacity it was created with
+    private final int minCapacity;
+
+    // Instrumentation, plain counters so it can stay enabled. Probe lengths
+    // are the number of slots visited after the home slot, and lengths of
+    // HISTOGRAM_SIZE - 1 or more share the last bucket.
+    private static final int HISTOGRAM_SIZE = 16;
+    private final long[] getProbes = new long[HISTOGRAM_SIZE];
+    private final long[] putProbes = new long[HISTOGRAM_SIZE];
+    private int maxProbeLength;
+    private int rehashCount;
+    private long rehashNanos;
 
    // Constructor for GTUHashMap
     @SuppressWarnings("unchecked")
@@ -19,11 +45,74 @@ public class GTUHashMap <K,V>{
         deletedSize = 0;
 
         numOfCollision = 0;
+        loadFactor = 0.75;
+        maxDeletedRatio = loadFactor / 3;
+        minLoad = loadFactor / 8;
+        minCapacity = table.length;
     }
 
-    private int find(K key, Boolean isPut) {
+    // Constructor for a map that will hold about expectedSize entries. The
+    // table starts at the final prime capacity, so filling it never rehashes
+    public GTUHashMap(int expectedSize) {
+        this(expectedSize, 0.75);
+    }
+
+    // Constructor with a custom load factor between 0 and 1. Higher values
+    // save memory but make probe sequences longer.
+    @SuppressWarnings("unchecked")
+    public GTUHashMap(int expectedSize, double loadFactor) {
+        checkLoadFactor(loadFactor);
+        this.loadFactor = loadFactor;
+        table = (Entry<K,V>[]) new Entry<?,?>[Hashing.capacityFor(expectedSize, loadFactor)];
+        size = 0;
+        deletedSize = 0;
+        numOfCollision = 0;
+        minCapacity = table.length;
+        // Small load factors still allow one tombstone, see setCompactionThresholds
+        maxDeletedRatio = Math.max(loadFactor / 3, 1.0 / minCapacity);
+        minLoad = loadFactor / 8;
+    }
+
+    private static void checkLoadFactor(double loadFactor) {
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + loadFactor);
+        }
+    }
+
+    // Sets when remove() cleans up the table. Once tombstones fill more than
+    // maxDeletedRatio of it, the live entries are rehashed in place, which
+    // keeps probe sequences short. Once live entries fill less than minLoad
+    // of it, it shrinks to the smallest prime capacity that is half as full
+    // as the load factor allows (never below the initial capacity), which
+    // returns the memory. minLoad must stay below half the load factor so a
+    // shrunk table does not have to grow again right away; 0 turns
+    // shrinking off. The defaults are a third and an eighth of the load factor.
+    // maxDeletedRatio must allow at least one tombstone in the smallest
+    // table, otherwise every remove() would rebuild the whole table.
+    public void setCompactionThresholds(double maxDeletedRatio, double minLoad) {
+        if (!(maxDeletedRatio > 0 && maxDeletedRatio <= 1)) {
+            throw new IllegalArgumentException("Tombstone ratio must be in (0, 1]: " + maxDeletedRatio);
+        }
+        if (maxDeletedRatio * minCapacity < 1) {
+            throw new IllegalArgumentException("Tombstone ratio " + maxDeletedRatio
+                    + " allows no tombstone in a table of " + minCapacity + " slots");
+        }
+        if (!(minLoad >= 0 && minLoad < loadFactor / 2)) {
+            throw new IllegalArgumentException("Minimum load must be in [0, " + loadFactor / 2 + "): " + minLoad);
+        }
+        this.maxDeletedRatio = maxDeletedRatio;
+        this.minLoad = minLoad;
+    }
+
+    // Constructor for load(), which fills the table itself
+    private GTUHashMap(Entry<K,V>[] table, double loadFactor, int minCapacity) {
+        this.table = table;
+        this.loadFactor = loadFactor;
+        this.minCapacity = minCapacity;
+    }
+
+    private int find(K key, int hash, Boolean isPut) {
       
-        int hash = key.hashCode();
         int index = hash % table.length;
         
         if(index < 0) {
@@ -32,12 +121,24 @@ public class GTUHashMap <K,V>{
 
         int probe = 1; // Probe counter
         int initialIndex = index;
+        int firstDeleted = -1; // First tombstone on the probe sequence
 
         // Probe through the table until we find either:
         // 1. An empty slot (null)
-        // 2. A deleted entry that could be reused
-        // 3. The exact key we're looking for
-        while(table[index] != null && (table[index].isDeleted==false && !table[index].key.equals(key))) {
+        // 2. The exact key we're looking for
+        // Deleted entries do not stop the search, but the first one is
+        // remembered so that put() can reuse it
+        while(table[index] != null) {
+            if(table[index].isDeleted){
+                if(firstDeleted == -1){
+                    firstDeleted = index;
+                }
+            }
+            else if(table[index].hash == hash && table[index].key.equals(key)){
+                recordProbe(probe - 1, isPut);
+                return index;
+            }
+
             if(isPut){
                 numOfCollision++;
             }
@@ -47,44 +148,140 @@ public class GTUHashMap <K,V>{
             
             // If we've probed the entire table and didn't find the key
             if (probe > table.length) {
-                return -1; // Indicates table is full and key not found
+                recordProbe(probe - 1, isPut);
+                return firstDeleted; // -1 indicates table is full and key not found
             }
         }
         
+        recordProbe(probe - 1, isPut);
+        return firstDeleted != -1 ? firstDeleted : index;
+    }
+
+    // Adds one probe sequence to the get or put histogram
+    private void recordProbe(int length, boolean isPut) {
+        long[] histogram = isPut ? putProbes : getProbes;
+        histogram[Math.min(length, HISTOGRAM_SIZE - 1)]++;
+        if (length > maxProbeLength) {
+            maxProbeLength = length;
+        }
+    }
+
+    // Finds an empty slot for a hash, used when the key is known to be absent
+    // and the table has no tombstones (i.e. while rehashing). Quadratic
+    // probing only reaches about half of the slots of a prime table, so this
+    // returns -1 when none of those is empty.
+    private int findEmpty(int hash) {
+        int index = hash % table.length;
+        if(index < 0) {
+            index += table.length;
+        }
+
+        int probe = 1;
+        int initialIndex = index;
+        while(table[index] != null) {
+            if (probe > table.length / 2) {
+                return -1;
+            }
+            index = (initialIndex + probe * probe) % table.length;
+            probe++;
+        }
         return index;
     }
 
-    @SuppressWarnings("unchecked")
     private void rehash(){
-
-        Entry<K,V>[] oldTable = table;
-            
+        // Mostly tombstones (many removes): rebuild at the same capacity,
+        // growing here would enlarge the table forever under steady churn.
+        // Afterwards the table is at most half as full as the load factor
+        // allows, so this can not repeat on every insert.
+        if (size < table.length * loadFactor / 2) {
+            compact();
+            return;
+        }
         // Calculate new capacity as the next prime number 
-        int newCapacity = nextPrime(table.length * 2 + 1);
-        table = new Entry[newCapacity];
+        rehash(Hashing.nextPrime(table.length * 2 + 1));
+    }
 
-        size=0;
+    // Moves all active entries into a table of the given capacity. A table
+    // of the current capacity is cleared and reused instead of allocated.
+    // If some entry finds no empty slot on its probe sequence, the table
+    // grows and the entries are placed again.
+    @SuppressWarnings("unchecked")
+    private void rehash(int newCapacity){
+
+        long startTime = System.nanoTime();
+        Entry<K,V>[] live = (Entry<K,V>[]) new Entry<?,?>[size];
+        int count = 0;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null && table[i].isDeleted == false) {
+                live[count++] = table[i];
+            }
+        }
+
+        if (newCapacity == table.length) {
+            Arrays.fill(table, null);
+        } else {
+            table = (Entry<K,V>[]) new Entry<?,?>[newCapacity];
+        }
         deletedSize = 0;
 
-        // Reinsert all active entries from old table to new table
-        for(int i = 0; i < oldTable.length ; i++){
-            if(oldTable[i]!=null && oldTable[i].isDeleted==false){
+        // The entries keep their cached hash, so hashCode() is not called again
+        while (!placeAll(live)) {
+            table = (Entry<K,V>[]) new Entry<?,?>[Hashing.nextPrime(table.length * 2 + 1)];
+        }
+
+        rehashCount++;
+        rehashNanos += System.nanoTime() - startTime;
+    }
 
-                // Use put() to properly handle hash distribution in new table
-                put(oldTable[i].key,oldTable[i].value,false);
+    // Puts the entries into the empty table, false if one did not fit
+    private boolean placeAll(Entry<K,V>[] entries) {
+        for (Entry<K,V> entry : entries) {
+            int index = findEmpty(entry.hash);
+            if (index == -1) {
+                return false;
             }
+            table[index] = entry;
         }
-        
+        return true;
+    }
+
+    // Rehashes the live entries to drop the tombstones, so every probe
+    // sequence is as short as it can be. The table is reused while less than
+    // half of it is live, which guarantees every entry an empty slot it can
+    // reach. Fuller tables grow instead.
+    private void compact(){
+        rehash(size < table.length / 2 ? table.length : Hashing.nextPrime(table.length * 2 + 1));
     }
 
     public void put(K key, V value) {
         put(key, value, true); 
     }
+
+    // Grows the table once so that expectedSize entries fit without rehashing
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        int capacity = Hashing.capacityFor(expectedSize, loadFactor);
+        if (capacity > table.length) {
+            rehash(capacity);
+        }
+    }
+
+    // Copies every mapping of the other map, growing the table at most once
+    public void putAll(GTUMap<K,V> other) {
+        ensureCapacity(size + other.size());
+
+        Iterator<K> iterator = other.keyIterator();
+        while (iterator.hasNext()) {
+            K key = iterator.next();
+            put(key, other.get(key));
+        }
+    }
     
 
     public void put(K key,V value , boolean flag){
 
-        int index = find(key, flag);
+        int hash = key.hashCode();
+        int index = find(key, hash, flag);
 
         // If table is full (find returned -1), rehash and retry
         if (index == -1) {
@@ -95,13 +292,13 @@ public class GTUHashMap <K,V>{
 
         // Case 1: Empty slot found - create new entry
         if(table[index]==null){
-            table[index] = new Entry<>(key, value);
+            table[index] = new Entry<>(key, value, hash);
             size++;
 
         } 
          // Case 2: Deleted entry found - reuse the slot
         else if(table[index].isDeleted){
-            table[index] = new Entry<>(key, value);
+            table[index] = new Entry<>(key, value, hash);
             size++;
             deletedSize--;
 
@@ -113,15 +310,15 @@ public class GTUHashMap <K,V>{
         }
 
         // Check if rehashing is needed (including tombstones in load factor)
-        double loadFactor = (double) (size + deletedSize) / table.length;
-        if(loadFactor >= 0.75){
+        double load = (double) (size + deletedSize) / table.length;
+        if(load >= loadFactor){
             rehash();
         }
     }
 
     public V get(K key){
 
-        int index = find(key,false);
+        int index = find(key, key.hashCode(), false);
 
         // If find() returned -1, the table is full and key doesn't exist
         if(index==-1){
@@ -135,7 +332,7 @@ public class GTUHashMap <K,V>{
     }
 
     public void remove(K key){
-        int index = find(key,false);
+        int index = find(key, key.hashCode(), false);
 
         // If find() returned -1, the table is full and key doesn't exist
         if(index==-1){
@@ -148,11 +345,19 @@ public class GTUHashMap <K,V>{
             // Update counters
             deletedSize++;
             size--;
+
+            // Give memory back when the table is mostly empty, otherwise
+            // clear out the tombstones once there are too many of them
+            if (size < minLoad * table.length && table.length > minCapacity) {
+                rehash(Hashing.nextPrime(Math.max(minCapacity, (int) (size / (loadFactor / 2)) + 1)));
+            } else if (deletedSize > maxDeletedRatio * table.length) {
+                compact();
+            }
         }
     }
 
     public boolean containsKey(K key){
-        int index = find(key,false);
+        int index = find(key, key.hashCode(), false);
 
         // If find() returned -1, the table is full and key doesn't exist
         if(index==-1){
@@ -172,6 +377,11 @@ public class GTUHashMap <K,V>{
         return size;
     }
 
+    @Override
+    public int capacity(){
+        return table.length;
+    }
+
     public Iterator<K> keyIterator() {
         return new Iterator<K>() {
 
@@ -200,35 +410,203 @@ public class GTUHashMap <K,V>{
         };
     }
 
+    public int getNumOfCol(){
+        return numOfCollision;
+    }
 
-    private int nextPrime(int n) {
-        if (n <= 1) return 2;
-        if (n % 2 == 0) n++;
-        
-        while (!isPrime(n)) {
-            n += 2;
+    // Returns a copy of the instrumentation counters, nothing is reset.
+    // get(), containsKey() and remove() are counted as gets.
+    public GTUHashMapStats stats(){
+        return new GTUHashMapStats(getProbes.clone(), putProbes.clone(), maxProbeLength,
+                size, deletedSize, table.length, rehashCount, rehashNanos, numOfCollision);
+    }
+
+    // Snapshot layout (big endian):
+    //   header : int magic, int version, int capacity, int size, int deletedSize,
+    //            int numOfCollision, int minCapacity, double loadFactor,
+    //            double maxDeletedRatio, double minLoad, int dataLength
+    //   data   : per used slot in slot order, int slot for an entry followed by
+    //            int hash, int keyLength, key, int valueLength (-1 for null),
+    //            value; or int -(slot + 1) for a tombstone
+    private static final int SNAPSHOT_MAGIC = 0x4754554D; // "GTUM"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_SIZE = 56;
+
+    // Writes the table as it is, with its capacity, the slot of every entry,
+    // the tombstones and the cached hashes, so load() can put every entry
+    // back into the same slot without hashing or probing. Keys and values
+    // are written by the codecs. The channel is not closed.
+    public void save(WritableByteChannel channel, GTUCodec<K> keyCodec, GTUCodec<V> valueCodec) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(Math.max(1024, size * 32 + deletedSize * 4));
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] == null) {
+                continue;
+            }
+            // A value that does not fit is written again into a bigger buffer
+            while (true) {
+                int start = data.position();
+                try {
+                    writeSlot(data, i, keyCodec, valueCodec);
+                    break;
+                } catch (BufferOverflowException e) {
+                    data.position(start);
+                    data.flip();
+                    data = ByteBuffer.allocate(data.capacity() * 2).put(data);
+                }
+            }
+        }
+        data.flip();
+
+        ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+        header.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(table.length)
+                .putInt(size).putInt(deletedSize).putInt(numOfCollision).putInt(minCapacity)
+                .putDouble(loadFactor).putDouble(maxDeletedRatio).putDouble(minLoad)
+                .putInt(data.remaining());
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        while (data.hasRemaining()) {
+            channel.write(data);
         }
-        return n;
     }
 
+    private void writeSlot(ByteBuffer data, int i, GTUCodec<K> keyCodec, GTUCodec<V> valueCodec) {
+        Entry<K,V> entry = table[i];
+        if (entry.isDeleted) {
+            data.putInt(-(i + 1));
+            return;
+        }
+        data.putInt(i).putInt(entry.hash);
 
-    // Helper method to check if a number is prime
-    private  boolean isPrime(int n) {
-        if (n <= 1) return false;
-        if (n == 2) return true;
-        if (n % 2 == 0) return false;
-        
-        for (int i = 3; i * i <= n; i += 2) {
-            if (n % i == 0) {
-                return false;
-            }
+        // Lengths are filled in once the codec has written the bytes
+        int lengthPosition = data.position();
+        data.putInt(0);
+        keyCodec.write(entry.key, data);
+        data.putInt(lengthPosition, data.position() - lengthPosition - 4);
+
+        if (entry.value == null) {
+            data.putInt(-1);
+            return;
         }
-        return true;
+        lengthPosition = data.position();
+        data.putInt(0);
+        valueCodec.write(entry.value, data);
+        data.putInt(lengthPosition, data.position() - lengthPosition - 4);
     }
 
-    public int getNumOfCol(){
-        return numOfCollision;
+    // Reads a map written by save(). The whole snapshot is read in one go
+    // and every entry goes straight into its saved slot. The channel is not
+    // closed.
+    @SuppressWarnings("unchecked")
+    public static <K,V> GTUHashMap<K,V> load(ReadableByteChannel channel, GTUCodec<K> keyCodec,
+                                             GTUCodec<V> valueCodec) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+        readFully(channel, header);
+        if (header.getInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a GTUHashMap snapshot");
+        }
+        int version = header.getInt();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported GTUHashMap snapshot version " + version);
+        }
+        int capacity = header.getInt();
+        int size = header.getInt();
+        int deletedSize = header.getInt();
+        int numOfCollision = header.getInt();
+        int minCapacity = header.getInt();
+        double loadFactor = header.getDouble();
+        double maxDeletedRatio = header.getDouble();
+        double minLoad = header.getDouble();
+        int dataLength = header.getInt();
+        // Capacities always come from nextPrime and never drop below minCapacity
+        if (capacity <= 0 || !Hashing.isPrime(capacity) || minCapacity <= 0 || minCapacity > capacity
+                || size < 0 || deletedSize < 0 || (long) size + deletedSize > capacity || dataLength < 0) {
+            throw new IOException("Corrupt GTUHashMap snapshot header");
+        }
+        try {
+            checkLoadFactor(loadFactor);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt GTUHashMap snapshot header: " + e.getMessage());
+        }
+        // put() rehashes as soon as the used slots reach the load factor
+        if (size + deletedSize >= loadFactor * capacity) {
+            throw new IOException("Corrupt GTUHashMap snapshot header: " + (size + deletedSize)
+                    + " used slots reach the load factor " + loadFactor + " of " + capacity + " slots");
+        }
+
+        ByteBuffer data = ByteBuffer.allocate(dataLength);
+        readFully(channel, data);
+
+        GTUHashMap<K,V> map = new GTUHashMap<>((Entry<K,V>[]) new Entry<?,?>[capacity], loadFactor, minCapacity);
+        // The thresholds follow the same rules as when they were set
+        try {
+            map.setCompactionThresholds(maxDeletedRatio, minLoad);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt GTUHashMap snapshot header: " + e.getMessage());
+        }
+        map.numOfCollision = numOfCollision;
+        Entry<K,V>[] table = map.table;
+
+        try {
+            while (data.hasRemaining()) {
+                int slot = data.getInt();
+                boolean deleted = slot < 0;
+                if (deleted) {
+                    slot = -slot - 1;
+                }
+                if (slot >= capacity || table[slot] != null) {
+                    throw new IOException("Corrupt GTUHashMap snapshot: bad slot " + slot);
+                }
+                if (deleted) {
+                    Entry<K,V> tombstone = new Entry<>(null, null, 0);
+                    tombstone.isDeleted = true;
+                    table[slot] = tombstone;
+                    map.deletedSize++;
+                    continue;
+                }
+
+                int hash = data.getInt();
+                K key = decode(data, keyCodec, data.getInt());
+                // The saved slot is only right if the key still has the same hash
+                if (key.hashCode() != hash) {
+                    throw new IOException("Key " + key + " has a different hash code than when it was saved");
+                }
+                int valueLength = data.getInt();
+                V value = valueLength == -1 ? null : decode(data, valueCodec, valueLength);
+                table[slot] = new Entry<>(key, value, hash);
+                map.size++;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupt GTUHashMap snapshot: entry data ends early");
+        }
+
+        if (map.size != size || map.deletedSize != deletedSize) {
+            throw new IOException("Corrupt GTUHashMap snapshot: expected " + size + " entries and "
+                    + deletedSize + " tombstones, found " + map.size + " and " + map.deletedSize);
+        }
+        return map;
     }
 
+    // Decodes length bytes and checks that the codec read exactly those
+    private static <T> T decode(ByteBuffer data, GTUCodec<T> codec, int length) throws IOException {
+        if (length < 0 || length > data.remaining()) {
+            throw new IOException("Corrupt GTUHashMap snapshot: bad length " + length);
+        }
+        int end = data.position() + length;
+        T value = codec.read(data, length);
+        if (data.position() != end) {
+            throw new IOException("Codec read " + (data.position() - end + length) + " of " + length + " bytes");
+        }
+        return value;
+    }
 
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) == -1) {
+                throw new EOFException("GTUHashMap snapshot ends early");
+            }
+        }
+        buffer.flip();
+    }
 }
@@ -0,0 +1,95 @@
+// Snapshot of the instrumentation counters of a GTUHashMap, taken by
+// GTUHashMap.stats(). Reading it does not reset anything in the map.
+public class GTUHashMapStats {
+    private final long[] getProbes;
+    private final long[] putProbes;
+    private final int maxProbeLength;
+    private final int size;
+    private final int tombstones;
+    private final int capacity;
+    private final int rehashCount;
+    private final long rehashNanos;
+    private final int numOfCollision;
+
+    public GTUHashMapStats(long[] getProbes, long[] putProbes, int maxProbeLength, int size,
+                           int tombstones, int capacity, int rehashCount, long rehashNanos,
+                           int numOfCollision) {
+        this.getProbes = getProbes;
+        this.putProbes = putProbes;
+        this.maxProbeLength = maxProbeLength;
+        this.size = size;
+        this.tombstones = tombstones;
+        this.capacity = capacity;
+        this.rehashCount = rehashCount;
+        this.rehashNanos = rehashNanos;
+        this.numOfCollision = numOfCollision;
+    }
+
+    // Number of lookups per probe length, the last bucket holds the longer ones
+    public long[] getProbeHistogram() {
+        return getProbes.clone();
+    }
+
+    // Number of insertions per probe length, the last bucket holds the longer ones
+    public long[] putProbeHistogram() {
+        return putProbes.clone();
+    }
+
+    public int maxProbeLength() {
+        return maxProbeLength;
+    }
+
+    // Average probe length of lookups (longer ones counted as the last bucket)
+    public double meanGetProbeLength() {
+        return mean(getProbes);
+    }
+
+    // Average probe length of insertions (longer ones counted as the last bucket)
+    public double meanPutProbeLength() {
+        return mean(putProbes);
+    }
+
+    private static double mean(long[] histogram) {
+        long count = 0;
+        long total = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            count += histogram[i];
+            total += histogram[i] * i;
+        }
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Share of the table slots taken by tombstones
+    public double tombstoneRatio() {
+        return (double) tombstones / capacity;
+    }
+
+    public int rehashCount() {
+        return rehashCount;
+    }
+
+    // Total time spent inside rehash, in milliseconds
+    public double rehashMillis() {
+        return rehashNanos / 1e6;
+    }
+
+    public int numOfCollision() {
+        return numOfCollision;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d capacity=%d tombstones=%.3f maxProbe=%d meanGetProbe=%.3f "
+                + "meanPutProbe=%.3f rehashes=%d rehashTime=%.2f ms collisions=%d",
+                size, capacity, tombstoneRatio(), maxProbeLength, meanGetProbeLength(),
+                meanPutProbeLength(), rehashCount, rehashMillis(), numOfCollision);
+    }
+}
@@ -1,20 +1,62 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
 import java.util.Iterator;
 
 
 public class GTUHashSet <E>  implements Iterable<E>{
     private static final Object WORD = new Object(); 
-    private GTUHashMap<E, Object> map;
+    // Snapshot codec for the dummy values, which take no bytes
+    private static final GTUCodec<Object> WORD_CODEC = new GTUCodec<Object>() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer, int length) {
+            return WORD;
+        }
+    };
+    private GTUMap<E, Object> map;
 
     // Constructor initializes the internal map
     public GTUHashSet() { 
         map = new GTUHashMap<>(); 
     } 
 
+    // Constructor for a set that will hold about expectedSize elements without rehashing
+    public GTUHashSet(int expectedSize) {
+        map = new GTUHashMap<>(expectedSize);
+    }
+
+    // Constructor that uses the given (empty) map as storage, e.g. GTUFlatHashMap
+    public GTUHashSet(GTUMap<E, Object> map) {
+        this.map = map;
+    }
+
     // Adds an element to the set by putting it in the map with the dummy value
     public void add(E element) { 
         map.put(element, WORD); 
     }
 
+    // Adds all elements, growing the storage at most once up front
+    public void addAll(Collection<? extends E> elements) {
+        map.ensureCapacity(map.size() + elements.size());
+        for (E element : elements) {
+            map.put(element, WORD);
+        }
+    }
+
+    // Adds all elements of another set, growing the storage at most once up front
+    public void addAll(GTUHashSet<? extends E> other) {
+        map.ensureCapacity(map.size() + other.size());
+        for (E element : other) {
+            map.put(element, WORD);
+        }
+    }
+
     // Removes an element from the set
     public void remove(E element) { 
         map.remove(element); 
@@ -34,6 +76,20 @@ public class GTUHashSet <E>  implements Iterable<E>{
         return map.getNumOfCol();
     }
 
+    // Writes a snapshot of the set, see GTUHashMap.save(). Only the default
+    // GTUHashMap storage has a snapshot format.
+    public void save(WritableByteChannel channel, GTUCodec<E> codec) throws IOException {
+        if (!(map instanceof GTUHashMap)) {
+            throw new UnsupportedOperationException("Snapshots are only supported for sets backed by GTUHashMap");
+        }
+        ((GTUHashMap<E, Object>) map).save(channel, codec, WORD_CODEC);
+    }
+
+    // Reads a set written by save(), without rehashing any element
+    public static <E> GTUHashSet<E> load(ReadableByteChannel channel, GTUCodec<E> codec) throws IOException {
+        return new GTUHashSet<>(GTUHashMap.load(channel, codec, WORD_CODEC));
+    }
+
     // Returns an iterator over the elements in the set
     @Override
     public Iterator<E> iterator() {
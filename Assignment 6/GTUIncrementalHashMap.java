@@ -0,0 +1,344 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Hash map with the same entries and quadratic probing as GTUHashMap, but the
+// table grows incrementally: when the load factor is reached a bigger table
+// is allocated next to the old one, and every put/get/remove moves a few
+// buckets of the old table into it. No single call rebuilds the whole table.
+public class GTUIncrementalHashMap <K,V> implements GTUMap<K,V>{
+    // Number of old buckets migrated by each operation
+    private static final int MIGRATE_STEP = 8;
+
+    // Left in the old table in place of a migrated entry, probes skip it like a tombstone
+    private static final Entry<Object,Object> MOVED = new Entry<>(null, null, 0);
+    static {
+        MOVED.isDeleted = true;
+    }
+
+    private Entry<K,V>[] table;
+    // Table being drained while a resize is in progress, null otherwise
+    private Entry<K,V>[] oldTable;
+    // Next bucket of oldTable to migrate
+    private int migrateIndex;
+    // Live entries still waiting in oldTable
+    private int oldLive;
+    private int size;
+    private int deletedSize;
+    private int numOfCollision;
+
+    // Constructor for GTUIncrementalHashMap
+    public GTUIncrementalHashMap() {
+        // Same default capacity as GTUHashMap
+        table = newTable(Hashing.DEFAULT_CAPACITY);
+        oldTable = null;
+        size = 0;
+        deletedSize = 0;
+        numOfCollision = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K,V> Entry<K,V>[] newTable(int capacity) {
+        return (Entry<K,V>[]) new Entry<?,?>[capacity];
+    }
+
+    // Returns the slot holding the key, otherwise the first tombstone or empty
+    // slot of its probe sequence, or -1 if the whole sequence is occupied.
+    // Quadratic probing over a prime table only reaches half of its slots,
+    // so the search stops there (which also keeps probe * probe from overflowing).
+    private int find(Entry<K,V>[] t, K key, int hash, boolean isPut) {
+        int index = hash % t.length;
+        if (index < 0) {
+            index += t.length;
+        }
+
+        int probe = 1;
+        int initialIndex = index;
+        int firstDeleted = -1;
+
+        while (t[index] != null) {
+            if (t[index].isDeleted) {
+                if (firstDeleted == -1) {
+                    firstDeleted = index;
+                }
+            }
+            else if (t[index].hash == hash && t[index].key.equals(key)) {
+                return index;
+            }
+
+            if (isPut) {
+                numOfCollision++;
+            }
+            if (probe > t.length / 2) {
+                return firstDeleted;
+            }
+            // Quadratic probing
+            index = (initialIndex + probe * probe) % t.length;
+            probe++;
+        }
+        return firstDeleted != -1 ? firstDeleted : index;
+    }
+
+    private static boolean isLive(Entry<?,?>[] t, int index) {
+        return index != -1 && t[index] != null && !t[index].isDeleted;
+    }
+
+    // Starts moving the entries into a new table. When fewer than half of
+    // the used slots are live the rest are tombstones, so the new table
+    // keeps the capacity, as GTUHashMap and GTUFlatHashMap rebuild in place;
+    // doubling here would grow the table forever under steady churn.
+    // Otherwise it gets the next prime capacity.
+    private void startResize() {
+        int capacity = size - oldLive < table.length * Hashing.DEFAULT_LOAD_FACTOR / 2
+                ? table.length
+                : Hashing.nextPrime(table.length * 2 + 1);
+        oldTable = table;
+        table = newTable(capacity);
+        migrateIndex = 0;
+        oldLive = size;
+        // Tombstones of the old table are dropped during migration
+        deletedSize = 0;
+    }
+
+    // Migrates up to maxBuckets buckets of the old table
+    @SuppressWarnings("unchecked")
+    private void migrate(int maxBuckets) {
+        if (oldTable == null) {
+            return;
+        }
+
+        int end = Math.min(oldTable.length, migrateIndex + maxBuckets);
+        for (; migrateIndex < end; migrateIndex++) {
+            Entry<K,V> entry = oldTable[migrateIndex];
+            if (entry == null || entry.isDeleted) {
+                continue;
+            }
+
+            // The key is never in both tables, so it needs a free slot
+            int index = find(table, entry.key, entry.hash, false);
+            if (index == -1) {
+                // The new table could not place it, fall back to a full rebuild
+                rebuildNow();
+                return;
+            }
+            if (table[index] != null) {
+                deletedSize--;
+            }
+            table[index] = entry;
+            oldTable[migrateIndex] = (Entry<K,V>) (Entry<?,?>) MOVED;
+            oldLive--;
+        }
+
+        if (migrateIndex == oldTable.length) {
+            oldTable = null;
+        }
+    }
+
+    // Moves every live entry of both tables into a fresh bigger table at once.
+    // Only used when quadratic probing cannot find a slot during migration.
+    private void rebuildNow() {
+        rebuildNow(Hashing.nextPrime(table.length * 2 + 1));
+    }
+
+    private void rebuildNow(int newCapacity) {
+        Entry<K,V>[] first = oldTable != null ? oldTable : newTable(0);
+        Entry<K,V>[] second = table;
+        oldTable = null;
+        oldLive = 0;
+        deletedSize = 0;
+
+        // A key that finds no free slot moves everything to a bigger table again
+        table = newTable(newCapacity);
+        while (!placeAll(first) || !placeAll(second)) {
+            table = newTable(Hashing.nextPrime(table.length * 2 + 1));
+        }
+    }
+
+    // Puts the live entries of t into the fresh table, false if one does not fit
+    private boolean placeAll(Entry<K,V>[] t) {
+        for (int i = 0; i < t.length; i++) {
+            if (t[i] != null && !t[i].isDeleted) {
+                int index = find(table, t[i].key, t[i].hash, false);
+                if (index == -1) {
+                    return false;
+                }
+                table[index] = t[i];
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        migrate(MIGRATE_STEP);
+
+        int hash = key.hashCode();
+
+        // Keys that are not migrated yet are updated where they are
+        if (oldTable != null) {
+            int oldIndex = find(oldTable, key, hash, false);
+            if (isLive(oldTable, oldIndex)) {
+                oldTable[oldIndex].value = value;
+                return;
+            }
+        }
+
+        int index = find(table, key, hash, true);
+
+        // If table is full (find returned -1), finish growing and retry
+        if (index == -1) {
+            if (oldTable != null) {
+                rebuildNow();
+            }
+            else {
+                startResize();
+                migrate(oldTable.length);
+            }
+            put(key, value);
+            return;
+        }
+
+        // Empty slot found - create new entry
+        if (table[index] == null) {
+            table[index] = new Entry<>(key, value, hash);
+            size++;
+        }
+        // Deleted entry found - reuse the slot
+        else if (table[index].isDeleted) {
+            table[index] = new Entry<>(key, value, hash);
+            size++;
+            deletedSize--;
+        }
+        // Existing entry found - update value
+        else {
+            table[index].value = value;
+        }
+
+        // Check if growing is needed (including tombstones in load factor)
+        double loadFactor = (double) (size - oldLive + deletedSize) / table.length;
+        if (loadFactor >= Hashing.DEFAULT_LOAD_FACTOR) {
+            // A resize still in progress is completed before starting the next one
+            if (oldTable != null) {
+                migrate(oldTable.length);
+            }
+            if (oldTable == null) {
+                startResize();
+            }
+        }
+    }
+
+    // Sizing up front is an explicit request, so it rebuilds at once instead of incrementally
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        int capacity = Hashing.capacityFor(expectedSize);
+        if (capacity > table.length) {
+            rebuildNow(capacity);
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        migrate(MIGRATE_STEP);
+
+        int hash = key.hashCode();
+        int index = find(table, key, hash, false);
+        if (isLive(table, index)) {
+            return table[index].value;
+        }
+        if (oldTable != null) {
+            index = find(oldTable, key, hash, false);
+            if (isLive(oldTable, index)) {
+                return oldTable[index].value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void remove(K key) {
+        migrate(MIGRATE_STEP);
+
+        int hash = key.hashCode();
+        int index = find(table, key, hash, false);
+        if (isLive(table, index)) {
+            // Mark as deleted (tombstone)
+            table[index].isDeleted = true;
+            deletedSize++;
+            size--;
+            return;
+        }
+        if (oldTable != null) {
+            index = find(oldTable, key, hash, false);
+            if (isLive(oldTable, index)) {
+                // The old table is discarded after migration, no counter to update
+                oldTable[index].isDeleted = true;
+                oldLive--;
+                size--;
+            }
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        migrate(MIGRATE_STEP);
+
+        int hash = key.hashCode();
+        if (isLive(table, find(table, key, hash, false))) {
+            return true;
+        }
+        return oldTable != null && isLive(oldTable, find(oldTable, key, hash, false));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Slots of the table, plus those of the old table while a resize is in progress
+    @Override
+    public int capacity() {
+        return table.length + (oldTable != null ? oldTable.length : 0);
+    }
+
+    // Returns true while entries are still being moved to the bigger table
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
+    @Override
+    public Iterator<K> keyIterator() {
+        return new Iterator<K>() {
+
+            // Walks the not yet migrated part of the old table, then the new table
+            private Entry<K,V>[] current = oldTable != null ? oldTable : table;
+            private int index = oldTable != null ? migrateIndex : 0;
+
+            @Override
+            public boolean hasNext() {
+                while (true) {
+                    while (index < current.length) {
+                        if (current[index] != null && !current[index].isDeleted) {
+                            return true;
+                        }
+                        index++;
+                    }
+                    if (current == table) {
+                        return false;
+                    }
+                    current = table;
+                    index = 0;
+                }
+            }
+
+            @Override
+            public K next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return current[index++].key;
+            }
+        };
+    }
+
+    @Override
+    public int getNumOfCol() {
+        return numOfCollision;
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.Iterator;
+
+// Common operations of the hash map implementations, so that GTUHashSet
+// can be backed by any of the available storage layouts.
+public interface GTUMap <K,V>{
+
+    // Inserts the mapping or updates the value of an existing key
+    void put(K key, V value);
+
+    // Returns the value mapped to the key, or null if the key is absent
+    V get(K key);
+
+    // Removes the mapping of the key if it exists
+    void remove(K key);
+
+    // Checks whether the key has a mapping
+    boolean containsKey(K key);
+
+    // Grows the storage once so that expectedSize mappings fit without rehashing
+    void ensureCapacity(int expectedSize);
+
+    // Returns the number of active mappings
+    int size();
+
+    // Returns the number of slots the storage currently allocates
+    int capacity();
+
+    // Returns an iterator over the active keys
+    Iterator<K> keyIterator();
+
+    // Returns the number of collisions that occurred during insertions
+    int getNumOfCol();
+}
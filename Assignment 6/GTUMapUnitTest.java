@@ -0,0 +1,369 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Supplier;
+
+// Checks every GTUMap implementation against java.util.HashMap under random
+// put, remove and get sequences, including the remove-heavy paths that
+// compact, rebuild and shrink the tables, and GTUHashMap snapshots. Run
+// with "java GTUMapUnitTest"; the exit status is 1 if any test fails.
+public class GTUMapUnitTest {
+    private static int failures = 0;
+
+    // Applies the same random operations to the map and to a HashMap and
+    // compares them after every step and once more at the end (sizes,
+    // lookups of every key and the keys the iterator returns). putPercent
+    // out of 100 operations are puts, the rest are split between removes
+    // and lookups.
+    static String randomOperations(GTUMap<Integer, Integer> map, int operations, int keyRange,
+                                   int putPercent, long seed) {
+        Random random = new Random(seed);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < operations; i++) {
+            int key = random.nextInt(keyRange) - keyRange / 2;
+            int operation = random.nextInt(100);
+            if (operation < putPercent) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else if (operation < putPercent + (100 - putPercent) / 2) {
+                map.remove(key);
+                expected.remove(key);
+            } else if (!Objects.equals(map.get(key), expected.get(key))
+                    || map.containsKey(key) != expected.containsKey(key)) {
+                return "lookup of " + key + " differs at operation " + i;
+            }
+            if (map.size() != expected.size()) {
+                return "size " + map.size() + " instead of " + expected.size() + " at operation " + i;
+            }
+        }
+        return compare(map, expected);
+    }
+
+    // Compares the final contents of the map with the expected ones
+    static String compare(GTUMap<Integer, Integer> map, Map<Integer, Integer> expected) {
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            if (!Objects.equals(entry.getValue(), map.get(entry.getKey())) || !map.containsKey(entry.getKey())) {
+                return "lost the value of " + entry.getKey();
+            }
+        }
+        HashSet<Integer> seen = new HashSet<>();
+        Iterator<Integer> iterator = map.keyIterator();
+        while (iterator.hasNext()) {
+            Integer key = iterator.next();
+            if (!seen.add(key)) {
+                return "iterator returned " + key + " twice";
+            }
+            if (!expected.containsKey(key)) {
+                return "iterator returned the removed key " + key;
+            }
+        }
+        if (seen.size() != expected.size()) {
+            return "iterator returned " + seen.size() + " of " + expected.size() + " keys";
+        }
+        return null;
+    }
+
+    // A fresh empty map of every implementation, by name
+    static Map<String, Supplier<GTUMap<Integer, Integer>>> maps() {
+        Map<String, Supplier<GTUMap<Integer, Integer>>> maps = new LinkedHashMap<>();
+        maps.put("GTUHashMap", GTUHashMap::new);
+        maps.put("GTUFlatHashMap", GTUFlatHashMap::new);
+        maps.put("GTURobinHoodHashMap", GTURobinHoodHashMap::new);
+        maps.put("GTUIncrementalHashMap", GTUIncrementalHashMap::new);
+        maps.put("GTUConcurrentHashMap", GTUConcurrentHashMap::new);
+        maps.put("GTUCuckooHashMap", GTUCuckooHashMap::new);
+        maps.put("GTUSwissHashMap", GTUSwissHashMap::new);
+        maps.put("GTUCompactHashMap", GTUCompactHashMap::new);
+        return maps;
+    }
+
+    // Runs the check and reports an exception as a failure of that test only
+    static String run(Supplier<String> check) {
+        try {
+            return check.get();
+        } catch (RuntimeException e) {
+            return e.toString();
+        }
+    }
+
+    static void report(String name, String failure) {
+        if (failure == null) {
+            System.out.println(name + " ✅  Passed");
+        } else {
+            failures++;
+            System.out.println(name + " ❌ Failed: " + failure);
+        }
+    }
+
+    // Random operations on small, medium and large key ranges
+    static void testRandomOperations() {
+        System.out.println("\n=== Testing: random put/remove/get against HashMap ===");
+        for (Map.Entry<String, Supplier<GTUMap<Integer, Integer>>> map : maps().entrySet()) {
+            for (int keyRange : new int[]{20, 500, 100000}) {
+                report(map.getKey() + ", keys in " + keyRange,
+                        run(() -> randomOperations(map.getValue().get(), 300000, keyRange, 50, keyRange)));
+            }
+        }
+        for (double loadFactor : new double[]{0.5, 0.9, 0.95}) {
+            report("GTUHashMap, load factor " + loadFactor,
+                    randomOperations(new GTUHashMap<>(0, loadFactor), 300000, 5000, 50, 7));
+        }
+    }
+
+    // Removes dominate or follow every put, which fills the tables with
+    // tombstones and keeps them compacting, rebuilding and shrinking
+    static void testRemoveHeavy() {
+        System.out.println("\n=== Testing: remove-heavy sequences on every map ===");
+        for (Map.Entry<String, Supplier<GTUMap<Integer, Integer>>> map : maps().entrySet()) {
+            for (int putPercent : new int[]{30, 10}) {
+                report(map.getKey() + ", " + putPercent + "% puts",
+                        run(() -> randomOperations(map.getValue().get(), 100000, 400, putPercent, putPercent)));
+            }
+            report(map.getKey() + ", sliding window of keys", run(() -> slidingWindow(map.getValue().get())));
+            report(map.getKey() + ", bulk remove and refill", run(() -> bulkRemove(map.getValue().get())));
+        }
+    }
+
+    // Every put of a new key removes the key inserted 1000 puts earlier, so
+    // the size stays constant while the table sees 200000 distinct keys.
+    // The tombstones must be reclaimed: a table that grows with the number
+    // of removed keys instead of the live ones fails the capacity bound.
+    static String slidingWindow(GTUMap<Integer, Integer> map) {
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        int window = 1000;
+        for (int i = 0; i < 200000; i++) {
+            map.put(i, i);
+            expected.put(i, i);
+            if (i >= window) {
+                map.remove(i - window);
+                expected.remove(i - window);
+            }
+            if (map.size() != expected.size()) {
+                return "size " + map.size() + " instead of " + expected.size() + " after key " + i;
+            }
+            if (map.capacity() > 8 * window) {
+                return "capacity " + map.capacity() + " for " + window + " live keys after key " + i;
+            }
+        }
+        return compare(map, expected);
+    }
+
+    // Removes almost all of many keys, then puts half of them back
+    static String bulkRemove(GTUMap<Integer, Integer> map) {
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 100000; i++) {
+            if (i % 10000 == 0) {
+                expected.put(i, i);
+            } else {
+                map.remove(i);
+            }
+        }
+        String failure = compare(map, expected);
+        if (failure != null) {
+            return failure;
+        }
+        for (int i = 0; i < 100000; i += 2) {
+            map.put(i, -i);
+            expected.put(i, -i);
+        }
+        return compare(map, expected);
+    }
+
+    // Removes dominate, so remove() keeps compacting and shrinking the table
+    static void testCompactionAndShrink() {
+        System.out.println("\n=== Testing: GTUHashMap compaction and shrinking ===");
+
+        // High load factors with a low tombstone ratio compact tables that
+        // are more than half full, where quadratic probing can not reach
+        // every slot
+        double[][] thresholds = {{0.05, 0}, {0.1, 0.05}, {0.3, 0.2}, {1, 0}};
+        for (double loadFactor : new double[]{0.5, 0.75, 0.9, 0.95}) {
+            for (double[] threshold : thresholds) {
+                if (threshold[1] >= loadFactor / 2) {
+                    continue;
+                }
+                for (int putPercent : new int[]{50, 30, 10}) {
+                    GTUHashMap<Integer, Integer> map = new GTUHashMap<>(100, loadFactor);
+                    map.setCompactionThresholds(threshold[0], threshold[1]);
+                    String failure = randomOperations(map, 100000, 400, putPercent, putPercent);
+                    report("load factor " + loadFactor + ", tombstones " + threshold[0]
+                            + ", min load " + threshold[1] + ", " + putPercent + "% puts", failure);
+                }
+            }
+        }
+
+        // Keys whose in-place compaction of a 23 slot table, 20 of them live,
+        // once had an entry that found no empty slot
+        GTUHashMap<Integer, Integer> crowded = new GTUHashMap<>(5, 0.9);
+        crowded.setCompactionThresholds(0.1, 0);
+        HashMap<Integer, Integer> remaining = new HashMap<>();
+        int[] inserted = {52, 473, 742, 879, 238, 573, 598, 413, 652, 192,
+                935, 722, 673, 539, 94, 861, 460, 698, 619, 140};
+        int[] removed = {935, 652, 473, 192, 619, 598, 238, 573, 861, 413};
+        String crowdedFailure;
+        try {
+            for (int key : inserted) {
+                crowded.put(key, key);
+                remaining.put(key, key);
+            }
+            for (int key : removed) {
+                crowded.remove(key);
+                remaining.remove(key);
+            }
+            crowdedFailure = compare(crowded, remaining);
+        } catch (RuntimeException e) {
+            crowdedFailure = e.toString();
+        }
+        report("compacting a table more than half full", crowdedFailure);
+
+        // Bulk removal gives the memory back
+        GTUHashMap<Integer, Integer> map = new GTUHashMap<>();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            map.put(i, i);
+        }
+        int peakCapacity = map.stats().capacity();
+        for (int i = 0; i < 100000; i++) {
+            if (i % 10000 == 0) {
+                expected.put(i, i);
+            } else {
+                map.remove(i);
+            }
+        }
+        String failure = compare(map, expected);
+        if (failure == null && map.stats().capacity() >= peakCapacity / 100) {
+            failure = "capacity " + map.stats().capacity() + " after removing almost all of " + peakCapacity;
+        }
+        report("bulk remove shrinks the table", failure);
+
+        // A ratio that allows no tombstone would rebuild on every remove
+        try {
+            new GTUHashMap<Integer, Integer>(5, 0.9).setCompactionThresholds(0.05, 0);
+            report("tombstone ratio below one slot is rejected", "no exception");
+        } catch (IllegalArgumentException e) {
+            report("tombstone ratio below one slot is rejected", null);
+        }
+    }
+
+    static byte[] save(GTUHashMap<Integer, Integer> map) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        map.save(Channels.newChannel(out), GTUCodec.INTEGER, GTUCodec.INTEGER);
+        return out.toByteArray();
+    }
+
+    static GTUHashMap<Integer, Integer> load(byte[] snapshot) throws IOException {
+        return GTUHashMap.load(Channels.newChannel(new ByteArrayInputStream(snapshot)),
+                GTUCodec.INTEGER, GTUCodec.INTEGER);
+    }
+
+    // Returns null if loading the snapshot throws IOException
+    static String loadFails(byte[] snapshot) {
+        try {
+            load(snapshot);
+            return "loaded without an error";
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            return e.toString();
+        }
+    }
+
+    // save() and load() keep the entries, null values and tombstones, and
+    // load() rejects snapshots whose header or data is damaged
+    static void testSnapshots() {
+        System.out.println("\n=== Testing: GTUHashMap save and load ===");
+
+        // Tombstones are kept until the snapshot is taken
+        GTUHashMap<Integer, Integer> map = new GTUHashMap<>(0, 0.9);
+        map.setCompactionThresholds(1, 0);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            Integer value = i % 7 == 0 ? null : i * 3;
+            map.put(i, value);
+            expected.put(i, value);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            map.remove(i);
+            expected.remove(i);
+        }
+
+        byte[] snapshot;
+        try {
+            snapshot = save(map);
+            GTUHashMap<Integer, Integer> loaded = load(snapshot);
+            String failure = compare(loaded, expected);
+            if (failure == null && (loaded.stats().capacity() != map.stats().capacity()
+                    || loaded.stats().tombstoneRatio() != map.stats().tombstoneRatio())) {
+                failure = "capacity or tombstones differ after loading";
+            }
+            // The loaded map keeps working, including its rehashes
+            for (int i = 1000; i < 3000 && failure == null; i++) {
+                loaded.put(i, i);
+                expected.put(i, i);
+                loaded.remove(i - 1000);
+                expected.remove(i - 1000);
+            }
+            if (failure == null) {
+                failure = compare(loaded, expected);
+            }
+            report("round trip with tombstones and null values", failure);
+        } catch (IOException | RuntimeException e) {
+            report("round trip with tombstones and null values", e.toString());
+            return;
+        }
+
+        // Header fields: magic 0, capacity 8, size 12, minCapacity 24,
+        // loadFactor 28, maxDeletedRatio 36, minLoad 44, dataLength 52
+        report("truncated header is rejected", loadFails(Arrays.copyOf(snapshot, 30)));
+        report("truncated entry data is rejected", loadFails(Arrays.copyOf(snapshot, snapshot.length - 5)));
+        report("wrong magic is rejected", loadFails(corrupt(snapshot, 0, 0x12345678)));
+        report("non-prime capacity is rejected", loadFails(corrupt(snapshot, 8, 1000)));
+        report("negative size is rejected", loadFails(corrupt(snapshot, 12, -1)));
+        report("minimum capacity above the capacity is rejected", loadFails(corrupt(snapshot, 24, 1 << 30)));
+        report("NaN load factor is rejected", loadFails(corrupt(snapshot, 28, Double.NaN)));
+        report("load factor above 1 is rejected", loadFails(corrupt(snapshot, 28, 1.5)));
+        report("load factor the table exceeds is rejected", loadFails(corrupt(snapshot, 28, 0.1)));
+        report("zero tombstone ratio is rejected", loadFails(corrupt(snapshot, 36, 0.0)));
+        report("minimum load above half the load factor is rejected", loadFails(corrupt(snapshot, 44, 0.5)));
+        report("negative data length is rejected", loadFails(corrupt(snapshot, 52, -1)));
+    }
+
+    static byte[] corrupt(byte[] snapshot, int offset, int value) {
+        byte[] copy = snapshot.clone();
+        ByteBuffer.wrap(copy).putInt(offset, value);
+        return copy;
+    }
+
+    static byte[] corrupt(byte[] snapshot, int offset, double value) {
+        byte[] copy = snapshot.clone();
+        ByteBuffer.wrap(copy).putDouble(offset, value);
+        return copy;
+    }
+
+    public static void main(String[] args) {
+        testRandomOperations();
+        testRemoveHeavy();
+        testCompactionAndShrink();
+        testSnapshots();
+
+        System.out.println();
+        System.out.println(failures == 0 ? "All tests passed" : failures + " test(s) failed");
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Hash map using Robin Hood linear probing. An insert takes the slot of any
+// entry that is closer to its home slot than the inserted one, so probe
+// distances stay short and even. remove() shifts the following entries one
+// slot back instead of leaving a tombstone.
+public class GTURobinHoodHashMap <K,V> implements GTUMap<K,V>{
+    private Object[] keys;
+    private Object[] vals;
+    private int[] hashes;
+    // Distance of each entry from its home slot, -1 marks an empty slot
+    private int[] dist;
+    private int size;
+    private int numOfCollision;
+
+    // Constructor for GTURobinHoodHashMap
+    public GTURobinHoodHashMap() {
+        // Same default capacity as GTUHashMap
+        init(Hashing.DEFAULT_CAPACITY);
+        size = 0;
+        numOfCollision = 0;
+    }
+
+    private void init(int capacity) {
+        keys = new Object[capacity];
+        vals = new Object[capacity];
+        hashes = new int[capacity];
+        dist = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            dist[i] = -1;
+        }
+    }
+
+    private int home(int hash) {
+        return (hash & 0x7fffffff) % dist.length;
+    }
+
+    // Returns the slot holding the key, or -1 if the key is absent
+    private int find(Object key, int hash) {
+        int index = home(hash);
+        int d = 0;
+
+        // An entry closer to its home than we are to ours means the key
+        // would have been placed here, so the search can stop early
+        while (dist[index] != -1 && dist[index] >= d) {
+            if (hashes[index] == hash && keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) % dist.length;
+            d++;
+        }
+        return -1;
+    }
+
+    // Places a key that is known to be absent, displacing richer entries
+    private void insert(Object key, Object value, int hash, boolean isPut) {
+        int index = home(hash);
+        int d = 0;
+
+        while (dist[index] != -1) {
+            // Swap with the resident entry if it is closer to its home slot,
+            // and continue placing the evicted one
+            if (dist[index] < d) {
+                Object tmpKey = keys[index];
+                Object tmpVal = vals[index];
+                int tmpHash = hashes[index];
+                int tmpDist = dist[index];
+                keys[index] = key;
+                vals[index] = value;
+                hashes[index] = hash;
+                dist[index] = d;
+                key = tmpKey;
+                value = tmpVal;
+                hash = tmpHash;
+                d = tmpDist;
+            }
+            if (isPut) {
+                numOfCollision++;
+            }
+            index = (index + 1) % dist.length;
+            d++;
+        }
+
+        keys[index] = key;
+        vals[index] = value;
+        hashes[index] = hash;
+        dist[index] = d;
+    }
+
+    private void rehash() {
+        // Calculate new capacity as the next prime number
+        rehash(Hashing.nextPrime(dist.length * 2 + 1));
+    }
+
+    private void rehash(int newCapacity) {
+        Object[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int[] oldHashes = hashes;
+        int[] oldDist = dist;
+
+        init(newCapacity);
+
+        for (int i = 0; i < oldDist.length; i++) {
+            if (oldDist[i] != -1) {
+                insert(oldKeys[i], oldVals[i], oldHashes[i], false);
+            }
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        int hash = key.hashCode();
+        int index = find(key, hash);
+
+        // Existing key - update value
+        if (index != -1) {
+            vals[index] = value;
+            return;
+        }
+
+        insert(key, value, hash, true);
+        size++;
+
+        // No tombstones exist, so only live entries count toward the load factor
+        double loadFactor = (double) size / dist.length;
+        if (loadFactor >= Hashing.DEFAULT_LOAD_FACTOR) {
+            rehash();
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        int capacity = Hashing.capacityFor(expectedSize);
+        if (capacity > dist.length) {
+            rehash(capacity);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int index = find(key, key.hashCode());
+        if (index == -1) {
+            return null;
+        }
+        return (V) vals[index];
+    }
+
+    @Override
+    public void remove(K key) {
+        int index = find(key, key.hashCode());
+        if (index == -1) {
+            return;
+        }
+
+        // Backward-shift deletion: pull every following displaced entry one
+        // slot closer to its home until an empty slot or a home-slot entry
+        int next = (index + 1) % dist.length;
+        while (dist[next] > 0) {
+            keys[index] = keys[next];
+            vals[index] = vals[next];
+            hashes[index] = hashes[next];
+            dist[index] = dist[next] - 1;
+            index = next;
+            next = (next + 1) % dist.length;
+        }
+
+        keys[index] = null;
+        vals[index] = null;
+        dist[index] = -1;
+        size--;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return find(key, key.hashCode()) != -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return dist.length;
+    }
+
+    // Returns the longest distance of an entry from its home slot
+    public int maxProbeDistance() {
+        int max = 0;
+        for (int i = 0; i < dist.length; i++) {
+            if (dist[i] > max) {
+                max = dist[i];
+            }
+        }
+        return max;
+    }
+
+    // Returns the average distance of the entries from their home slots
+    public double meanProbeDistance() {
+        if (size == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < dist.length; i++) {
+            if (dist[i] > 0) {
+                total += dist[i];
+            }
+        }
+        return (double) total / size;
+    }
+
+    @Override
+    public Iterator<K> keyIterator() {
+        return new Iterator<K>() {
+
+            // Current position in the table
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (index < dist.length) {
+                    if (dist[index] != -1) {
+                        return true;
+                    }
+                    index++;
+                }
+                return false;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public K next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return (K) keys[index++];
+            }
+        };
+    }
+
+    @Override
+    public int getNumOfCol() {
+        return numOfCollision;
+    }
+}
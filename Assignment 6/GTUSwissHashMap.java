@@ -0,0 +1,272 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Hash map in the style of Swiss tables. Next to the keys there is one
+// control byte per slot, packed eight to a long:
+//   0x80        empty
+//   0xFE        deleted (tombstone)
+//   0x00..0x7F  full, holding 7 bits of the key's hash (H2)
+// The remaining hash bits (H1) choose a group of eight slots. A lookup
+// compares H2 with all eight control bytes of a group at once using SWAR
+// (SIMD within a register) arithmetic on the long, and only reads keys
+// whose control byte matched. A group with an empty slot ends the search,
+// so most lookups of absent keys read one control word and no key at all.
+// Groups are probed in triangular order (+1, +2, +3, ...), which visits
+// every group of the power of two sized table.
+public class GTUSwissHashMap <K,V> implements GTUMap<K,V>{
+    private static final int GROUP_SIZE = 8;
+    private static final long EMPTY = 0x80L;
+    private static final long DELETED = 0xFEL;
+    // A byte value repeated in all eight bytes
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    // Tombstones count as used, so every probe sequence meets an empty slot
+    private static final double LOAD_FACTOR = 0.875;
+
+    private long[] ctrl;
+    private Object[] keys;
+    private Object[] vals;
+    private int[] hashes;
+    private int groupMask;
+    private int size;
+    private int deletedSize;
+    private int numOfCollision;
+
+    // Constructor for GTUSwissHashMap
+    public GTUSwissHashMap() {
+        this(0);
+    }
+
+    // Constructor for a map that will hold about expectedSize entries without rehashing
+    public GTUSwissHashMap(int expectedSize) {
+        allocate(groupsFor(expectedSize));
+        size = 0;
+        deletedSize = 0;
+        numOfCollision = 0;
+    }
+
+    // Power of two number of groups (at least 2) keeping expectedSize entries below the load factor
+    private static int groupsFor(int expectedSize) {
+        int needed = (int) (expectedSize / LOAD_FACTOR / GROUP_SIZE) + 1;
+        int groups = 2;
+        while (groups < needed) {
+            groups <<= 1;
+        }
+        return groups;
+    }
+
+    private void allocate(int groups) {
+        ctrl = new long[groups];
+        // Every control byte starts as EMPTY
+        for (int g = 0; g < groups; g++) {
+            ctrl[g] = EMPTY * LOW_BITS;
+        }
+        keys = new Object[groups * GROUP_SIZE];
+        vals = new Object[groups * GROUP_SIZE];
+        hashes = new int[groups * GROUP_SIZE];
+        groupMask = groups - 1;
+    }
+
+    // High bit set in every byte of the word equal to b. Bytes above a real
+    // match can be reported too (borrow), callers compare the keys anyway.
+    private static long matchByte(long word, long b) {
+        long x = word ^ (b * LOW_BITS);
+        return (x - LOW_BITS) & ~x & HIGH_BITS;
+    }
+
+    // High bit set in every EMPTY byte: high bit set and bit 1 clear
+    private static long matchEmpty(long word) {
+        return word & ~(word << 6) & HIGH_BITS;
+    }
+
+    // High bit set in every EMPTY or DELETED byte
+    private static long matchFree(long word) {
+        return word & HIGH_BITS;
+    }
+
+    // Slot of the lowest matched byte in the group
+    private static int slotOf(int group, long match) {
+        return group * GROUP_SIZE + (Long.numberOfTrailingZeros(match) >>> 3);
+    }
+
+    private long controlByte(int slot) {
+        return (ctrl[slot / GROUP_SIZE] >>> ((slot % GROUP_SIZE) * 8)) & 0xFFL;
+    }
+
+    private void setControlByte(int slot, long value) {
+        int shift = (slot % GROUP_SIZE) * 8;
+        int group = slot / GROUP_SIZE;
+        ctrl[group] = (ctrl[group] & ~(0xFFL << shift)) | (value << shift);
+    }
+
+    // Returns the slot holding the key, or -1
+    private int find(Object key, int hash) {
+        int h = Hashing.mix(hash);
+        long h2 = h & 0x7F;
+        int group = (h >>> 7) & groupMask;
+
+        for (int step = 1; ; step++) {
+            long word = ctrl[group];
+            for (long match = matchByte(word, h2); match != 0; match &= match - 1) {
+                int slot = slotOf(group, match);
+                // The slot may be a false match (empty or deleted), check for null
+                if (hashes[slot] == hash && keys[slot] != null && keys[slot].equals(key)) {
+                    return slot;
+                }
+            }
+            if (matchEmpty(word) != 0) {
+                return -1;
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        int hash = key.hashCode();
+        int slot = find(key, hash);
+        if (slot != -1) {
+            vals[slot] = value;
+            return;
+        }
+
+        // First empty or deleted slot on the key's probe sequence
+        int h = Hashing.mix(hash);
+        int group = (h >>> 7) & groupMask;
+        long match;
+        for (int step = 1; (match = matchFree(ctrl[group])) == 0; step++) {
+            numOfCollision++;
+            group = (group + step) & groupMask;
+        }
+        slot = slotOf(group, match);
+
+        if (controlByte(slot) == DELETED) {
+            deletedSize--;
+        }
+        setControlByte(slot, h & 0x7F);
+        keys[slot] = key;
+        vals[slot] = value;
+        hashes[slot] = hash;
+        size++;
+
+        if (size + deletedSize >= LOAD_FACTOR * keys.length) {
+            // Mostly tombstones: rebuild at the same size instead of growing
+            int groups = groupMask + 1;
+            rehash(size < LOAD_FACTOR * keys.length / 2 ? groups : groups * 2);
+        }
+    }
+
+    // Moves every entry into a table with the given number of groups
+    private void rehash(int groups) {
+        long[] oldCtrl = ctrl;
+        Object[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int[] oldHashes = hashes;
+
+        allocate(groups);
+        deletedSize = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            // Full bytes have the high bit clear
+            if ((oldCtrl[slot / GROUP_SIZE] >>> ((slot % GROUP_SIZE) * 8) & 0x80L) != 0) {
+                continue;
+            }
+            // The cached hashes are reused and no key is compared: the new
+            // table holds no duplicates and no tombstones
+            int h = Hashing.mix(oldHashes[slot]);
+            int group = (h >>> 7) & groupMask;
+            long match;
+            for (int step = 1; (match = matchEmpty(ctrl[group])) == 0; step++) {
+                group = (group + step) & groupMask;
+            }
+            int newSlot = slotOf(group, match);
+            setControlByte(newSlot, h & 0x7F);
+            keys[newSlot] = oldKeys[slot];
+            vals[newSlot] = oldVals[slot];
+            hashes[newSlot] = oldHashes[slot];
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        int groups = groupsFor(expectedSize);
+        if (groups > groupMask + 1) {
+            rehash(groups);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int slot = find(key, key.hashCode());
+        return slot == -1 ? null : (V) vals[slot];
+    }
+
+    @Override
+    public void remove(K key) {
+        int slot = find(key, key.hashCode());
+        if (slot == -1) {
+            return;
+        }
+
+        // A group that still has an empty slot was never full, so no probe
+        // sequence continues past it and the slot can become empty again.
+        // Otherwise a tombstone keeps later keys reachable.
+        if (matchEmpty(ctrl[slot / GROUP_SIZE]) != 0) {
+            setControlByte(slot, EMPTY);
+        } else {
+            setControlByte(slot, DELETED);
+            deletedSize++;
+        }
+        keys[slot] = null;
+        vals[slot] = null;
+        size--;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return find(key, key.hashCode()) != -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public Iterator<K> keyIterator() {
+        return new Iterator<K>() {
+
+            // Current slot
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (index < keys.length) {
+                    if ((controlByte(index) & 0x80L) == 0) {
+                        return true;
+                    }
+                    index++;
+                }
+                return false;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public K next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return (K) keys[index++];
+            }
+        };
+    }
+
+    // Number of full groups skipped while looking for a free slot during insertions
+    @Override
+    public int getNumOfCol() {
+        return numOfCollision;
+    }
+}
@@ -0,0 +1,69 @@
+// Hash helpers shared by the maps and word sets: the Murmur3 finalizer for
+// tables indexed by the low bits of a hash, String.hashCode() of any
+// CharSequence, and the prime capacities of the quadratic probing maps.
+final class Hashing {
+    // Capacity and load factor of GTUHashMap's default constructor, which
+    // the other prime-sized maps share
+    static final int DEFAULT_CAPACITY = 11;
+    static final double DEFAULT_LOAD_FACTOR = 0.75;
+
+    private Hashing() {
+    }
+
+    // Murmur3 finalizer, spreads every bit of the hash over the result
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    // Same value as String.hashCode(), computed without creating a String
+    static int hashOf(CharSequence word) {
+        if (word instanceof String) {
+            return word.hashCode();
+        }
+        int h = 0;
+        for (int i = 0; i < word.length(); i++) {
+            h = 31 * h + word.charAt(i);
+        }
+        return h;
+    }
+
+    // Smallest prime capacity (at least DEFAULT_CAPACITY) that keeps
+    // expectedSize entries below the default load factor
+    static int capacityFor(int expectedSize) {
+        return capacityFor(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    static int capacityFor(int expectedSize, double loadFactor) {
+        return nextPrime(Math.max(DEFAULT_CAPACITY, (int) (expectedSize / loadFactor) + 1));
+    }
+
+    // Smallest prime that is at least n
+    static int nextPrime(int n) {
+        if (n <= 1) return 2;
+        if (n % 2 == 0) n++;
+
+        while (!isPrime(n)) {
+            n += 2;
+        }
+        return n;
+    }
+
+    static boolean isPrime(int n) {
+        if (n <= 1) return false;
+        if (n == 2) return true;
+        if (n % 2 == 0) return false;
+
+        // i <= n / i instead of i * i <= n, which overflows near Integer.MAX_VALUE
+        for (int i = 3; i <= n / i; i += 2) {
+            if (n % i == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,114 @@
+// Size-bounded cache that drops the least recently used entry when full.
+// Entries are kept in a GTUHashMap for lookups and are also linked into a
+// doubly linked recency list (most recent first), so a hit moves its entry
+// to the front and an eviction unlinks the tail, both in constant time.
+// Methods are synchronized, so one cache can be shared by several threads.
+public class LRUCache <K,V>{
+
+    // Map value and list node in one object, no separate list entry per key
+    private static final class Node<K,V> {
+        final K key;
+        V value;
+        Node<K,V> previous;
+        Node<K,V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final int capacity;
+    private final GTUHashMap<K, Node<K,V>> map;
+    // Sentinel of the circular recency list: head.next is the most recent entry
+    private final Node<K,V> head;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // Constructor for a cache holding at most capacity entries
+    public LRUCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        // Sized for the full cache, so it never rehashes once warm
+        this.map = new GTUHashMap<>(capacity);
+        this.head = new Node<>(null, null);
+        head.previous = head;
+        head.next = head;
+    }
+
+    // Returns the cached value and marks it as recently used, or null on a miss
+    public synchronized V get(K key) {
+        Node<K,V> node = map.get(key);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        unlink(node);
+        linkFirst(node);
+        return node.value;
+    }
+
+    // Caches the value, evicting the least recently used entry if the cache is full
+    public synchronized void put(K key, V value) {
+        Node<K,V> node = map.get(key);
+        if (node != null) {
+            node.value = value;
+            unlink(node);
+            linkFirst(node);
+            return;
+        }
+
+        if (map.size() == capacity) {
+            Node<K,V> eldest = head.previous;
+            unlink(eldest);
+            map.remove(eldest.key);
+            evictions++;
+        }
+        node = new Node<>(key, value);
+        map.put(key, node);
+        linkFirst(node);
+    }
+
+    private void unlink(Node<K,V> node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+    }
+
+    private void linkFirst(Node<K,V> node) {
+        node.previous = head;
+        node.next = head.next;
+        head.next.previous = node;
+        head.next = node;
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LRUCache{size=" + map.size() + "/" + capacity + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+}
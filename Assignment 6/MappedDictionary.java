@@ -0,0 +1,239 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+// Dictionary stored as a binary hash table on disk. compile() turns a word
+// list into an index file once; open() memory-maps that file and answers
+// contains() straight from the mapped bytes. Nothing is parsed or hashed at
+// startup, the words stay off-heap, and processes that open the same file
+// share its pages through the OS page cache.
+//
+// File layout (big endian):
+//   header : int magic, int version, int wordCount, int slotCount
+//   slots  : slotCount x (int hash, int dataOffset + 1), 0 marks an empty slot
+//   data   : per word a short length followed by its chars (2 bytes each)
+// Slots use linear probing over a power of two table at most half full.
+// The hash is String.hashCode(), so it can be computed from any CharSequence.
+public class MappedDictionary implements WordSet {
+    private static final int MAGIC = 0x47545544; // "GTUD"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 8;
+
+    private final MappedByteBuffer buffer;
+    private final int wordCount;
+    private final int slotMask;
+    private final int dataStart;
+
+    private MappedDictionary(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a dictionary index file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported dictionary index version " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.wordCount = buffer.getInt(8);
+        int slotCount = buffer.getInt(12);
+        if (slotCount <= 0 || (slotCount & (slotCount - 1)) != 0) {
+            throw new IOException("Corrupt dictionary index: slot count " + slotCount + " is not a power of two");
+        }
+        if (HEADER_SIZE + (long) slotCount * SLOT_SIZE > buffer.capacity()) {
+            throw new IOException("Dictionary index file is truncated: the slots do not fit");
+        }
+        this.slotMask = slotCount - 1;
+        this.dataStart = HEADER_SIZE + slotCount * SLOT_SIZE;
+        checkWords(slotCount);
+    }
+
+    // Checks once that every word the slots point to lies inside the file
+    // and that some slot is empty, so lookups never read past the end of the
+    // mapping or probe forever
+    private void checkWords(int slotCount) throws IOException {
+        int count = 0;
+        for (int s = 0; s < slotCount; s++) {
+            int offset = buffer.getInt(HEADER_SIZE + s * SLOT_SIZE + 4);
+            if (offset == 0) {
+                continue;
+            }
+            long position = (long) dataStart + offset - 1;
+            if (offset < 0 || position + 2 > buffer.capacity()
+                    || position + 2 + 2L * buffer.getShort((int) position) > buffer.capacity()
+                    || buffer.getShort((int) position) < 0) {
+                throw new IOException("Dictionary index file is truncated: word of slot " + s + " is outside the file");
+            }
+            count++;
+        }
+        if (count != wordCount || count == slotCount) {
+            throw new IOException("Corrupt dictionary index: " + count + " words in " + slotCount
+                    + " slots, the header says " + wordCount);
+        }
+    }
+
+    // Maps an index file written by compile()
+    public static MappedDictionary open(String indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(indexFile), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new MappedDictionary(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Reads a word list (one word per line, like dictionary.txt) and writes its index file
+    public static void compile(String textFile, String indexFile) throws IOException {
+        ArrayList<String> words = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new FileReader(textFile));
+        String word;
+        while ((word = reader.readLine()) != null) {
+            // Only the word of "word frequency" lines is indexed
+            word = word.trim();
+            int space = SpellChecker.indexOfWhitespace(word);
+            words.add(space == -1 ? word : word.substring(0, space));
+        }
+        reader.close();
+
+        // Power of two slot count, at least twice the number of words
+        int slotCount = Integer.highestOneBit(Math.max(1, words.size()) * 2 - 1) << 1;
+        int[] slotHashes = new int[slotCount];
+        int[] slotWords = new int[slotCount]; // word index + 1, 0 = empty
+        int dataSize = 0;
+        int count = 0;
+
+        for (int i = 0; i < words.size(); i++) {
+            String w = words.get(i);
+            int hash = w.hashCode();
+            int index = Hashing.mix(hash) & (slotCount - 1);
+            boolean duplicate = false;
+
+            while (slotWords[index] != 0) {
+                if (slotHashes[index] == hash && words.get(slotWords[index] - 1).equals(w)) {
+                    duplicate = true;
+                    break;
+                }
+                index = (index + 1) & (slotCount - 1);
+            }
+            if (duplicate) {
+                continue;
+            }
+
+            slotHashes[index] = hash;
+            slotWords[index] = i + 1;
+            dataSize += 2 + 2 * w.length();
+            count++;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + slotCount * SLOT_SIZE + dataSize);
+        out.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(slotCount);
+
+        // Words are written in slot order, so probing neighbours are close on disk too
+        int dataOffset = 0;
+        int dataPosition = HEADER_SIZE + slotCount * SLOT_SIZE;
+        for (int s = 0; s < slotCount; s++) {
+            if (slotWords[s] == 0) {
+                out.putInt(0).putInt(0);
+                continue;
+            }
+            String w = words.get(slotWords[s] - 1);
+            out.putInt(slotHashes[s]).putInt(dataOffset + 1);
+
+            out.putShort(dataPosition + dataOffset, (short) w.length());
+            for (int c = 0; c < w.length(); c++) {
+                out.putChar(dataPosition + dataOffset + 2 + 2 * c, w.charAt(c));
+            }
+            dataOffset += 2 + 2 * w.length();
+        }
+        out.position(0);
+
+        try (FileChannel channel = FileChannel.open(Paths.get(indexFile), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    // Only absolute reads are used, so one instance can serve many threads
+    @Override
+    public boolean contains(CharSequence word) {
+        int hash = Hashing.hashOf(word);
+        int index = Hashing.mix(hash) & slotMask;
+
+        while (true) {
+            int slot = HEADER_SIZE + index * SLOT_SIZE;
+            int offset = buffer.getInt(slot + 4);
+            if (offset == 0) {
+                return false;
+            }
+            if (buffer.getInt(slot) == hash && matches(dataStart + offset - 1, word)) {
+                return true;
+            }
+            index = (index + 1) & slotMask;
+        }
+    }
+
+    @Override
+    public boolean contains(char[] chars, int length, int hash) {
+        int index = Hashing.mix(hash) & slotMask;
+
+        while (true) {
+            int slot = HEADER_SIZE + index * SLOT_SIZE;
+            int offset = buffer.getInt(slot + 4);
+            if (offset == 0) {
+                return false;
+            }
+            if (buffer.getInt(slot) == hash && matches(dataStart + offset - 1, chars, length)) {
+                return true;
+            }
+            index = (index + 1) & slotMask;
+        }
+    }
+
+    // Compares the stored word at the given position with chars[0, length)
+    private boolean matches(int position, char[] chars, int length) {
+        if (buffer.getShort(position) != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.getChar(position + 2 + 2 * i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Compares the stored word at the given position with the chars of word
+    private boolean matches(int position, CharSequence word) {
+        int length = buffer.getShort(position);
+        if (length != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.getChar(position + 2 + 2 * i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return wordCount;
+    }
+
+    // Offline compile step: java MappedDictionary dictionary.txt dictionary.idx
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: java MappedDictionary <word list> <index file>");
+            return;
+        }
+        long startTime = System.nanoTime();
+        compile(args[0], args[1]);
+        long endTime = System.nanoTime();
+        System.out.printf("Index written to %s in %.2f ms.\n", args[1], (endTime - startTime) / 1e6);
+    }
+}
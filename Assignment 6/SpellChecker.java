@@ -1,26 +1,320 @@
 import java.io.BufferedReader; 
 import java.io.FileReader; 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 public class SpellChecker { 
 
-    GTUHashSet<String> dictionary = new GTUHashSet<>();
+    GTUHashSet<String> dictionary;
+    // Read-only structure used for lookups instead of the dictionary, if set
+    WordSet lookup;
+    // Deletion index answering generateEditDistance2, if built
+    SymSpellIndex deletionIndex;
+    // Metric tree for queries with a custom edit distance, built on first use
+    BKTree bkTree;
+    // Array trie for edit-distance walks, built on first use
+    DictionaryTrie trie;
+    // Recently computed generateEditDistance2 results, if enabled
+    LRUCache<String, GTUHashSet<String>> suggestionCache;
+    // Pool expanding edit-distance-2 candidates in parallel, if enabled
+    ForkJoinPool parallelPool;
+    // Word frequencies from the optional second dictionary column, if any
+    GTUFlatHashMap<String, Long> frequencies;
     int numCol;
 
     public SpellChecker() throws IOException{
-        // Read words from dictionary file and add to set
+        // Read words from dictionary file. A line is either "word" or
+        // "word frequency", the frequency is used to rank suggest() results
+        ArrayList<String> words = new ArrayList<>();
         BufferedReader reader = new BufferedReader(new FileReader("dictionary.txt"));
-        String word;
-        while ((word = reader.readLine()) != null) {
-            dictionary.add(word.trim());
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            int space = indexOfWhitespace(line);
+            if (space == -1) {
+                words.add(line);
+                continue;
+            }
+
+            String word = line.substring(0, space);
+            long frequency;
+            try {
+                frequency = Long.parseLong(line.substring(space + 1).trim());
+            } catch (NumberFormatException e) {
+                reader.close();
+                throw new IOException("Invalid frequency on line " + lineNumber + " of dictionary.txt: " + line);
+            }
+            if (frequencies == null) {
+                frequencies = new GTUFlatHashMap<>();
+            }
+            frequencies.put(word, frequency);
+            words.add(word);
         }
         reader.close();
 
+        // Dictionary uses the flat layout (no Entry object per word) and is
+        // sized for all words up front, so loading it never rehashes
+        dictionary = new GTUHashSet<>(new GTUFlatHashMap<>(words.size()));
+        dictionary.addAll(words);
+
+        numCol=0;
+
+    }
+
+    static int indexOfWhitespace(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (Character.isWhitespace(line.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Constructor that answers lookups from a ready-made word set, such as a
+    // MappedDictionary index, instead of loading dictionary.txt. Such a
+    // checker has no loaded words to build the deletion index, BK-tree, trie
+    // or Bloom filter from, so those throw IllegalStateException.
+    public SpellChecker(WordSet lookup){
+        dictionary = new GTUHashSet<>(new GTUFlatHashMap<>());
+        this.lookup = lookup;
         numCol=0;
+    }
+
+    // Returns the number of words lookups are answered from
+    public int dictionarySize(){
+        if (lookup != null) {
+            return lookup.size();
+        }
+        return dictionary.size();
+    }
+
+    // Builds the immutable lookup copy of the dictionary. The dictionary must
+    // not change afterwards, lookups no longer read it.
+    public void freezeDictionary(){
+        lookup = FrozenStringSet.of(dictionary);
+    }
+
+    // Moves the dictionary into a CompactStringSet, which keeps all words in
+    // one byte array instead of a String per word, and drops the loaded
+    // GTUHashSet so its memory can be reclaimed. Lookups give the same
+    // answers and an enabled Bloom filter stays in front of them. The
+    // deletion index, trie, BK-tree and Bloom filter are built from the
+    // loaded dictionary: ones built before this call keep working, building
+    // them afterwards throws IllegalStateException.
+    public void compactDictionary(){
+        requireLoadedDictionary("compact set");
+        WordSet words = CompactStringSet.of(dictionary);
+        if (lookup instanceof BloomFilteredWordSet) {
+            words = new BloomFilteredWordSet(((BloomFilteredWordSet) lookup).getFilter(), words);
+        }
+        lookup = words;
+        dictionary = new GTUHashSet<>(new GTUFlatHashMap<>());
+    }
+
+    // Builds the deletion index over the loaded dictionary. Afterwards
+    // generateEditDistance2 returns the same suggestions from the index.
+    public void buildDeletionIndex(){
+        requireLoadedDictionary("deletion index");
+        deletionIndex = new SymSpellIndex(dictionary);
+    }
+
+    // Returns the dictionary words within maxDistance (Levenshtein distance) of
+    // the input, for distances where generating candidates is too expensive.
+    // How many tree nodes the query visited is available from getLastVisited().
+    public GTUHashSet<String> generateWithinDistance(String input, int maxDistance){
+        if (bkTree == null) {
+            requireLoadedDictionary("BK-tree");
+            bkTree = new BKTree(dictionary);
+        }
+        return bkTree.search(input, maxDistance);
+    }
+
+    // Number of BK-tree nodes visited by the last generateWithinDistance call
+    public int getLastVisited(){
+        return bkTree == null ? 0 : bkTree.getLastVisited();
+    }
+
+    // Returns the dictionary words within maxDistance of the input, counting
+    // adjacent transpositions as one edit. The trie walk only follows
+    // prefixes that can still lead to a word in range, so no candidate
+    // strings are generated.
+    public GTUHashSet<String> generateTrieSuggestions(String input, int maxDistance){
+        if (trie == null) {
+            requireLoadedDictionary("trie");
+            trie = new DictionaryTrie(dictionary);
+        }
+        return trie.search(input, maxDistance);
+    }
+
+    // The deletion index, BK-tree and trie are built from the loaded words.
+    // Built from an empty dictionary they would silently find nothing.
+    private void requireLoadedDictionary(String structure){
+        if (dictionary.size() == 0) {
+            throw new IllegalStateException("The " + structure + " is built from the loaded dictionary, which is empty");
+        }
+    }
+
+    // Caches the suggestions of up to capacity recent inputs. Cached sets are
+    // shared between calls, so callers must not modify the returned set.
+    public void enableCache(int capacity){
+        suggestionCache = new LRUCache<>(capacity);
+    }
+
+    public void disableCache(){
+        suggestionCache = null;
+    }
+
+    // Splits the edit-distance-2 expansion of each query across threads.
+    // The workers read the dictionary concurrently, so lookups are switched
+    // to the frozen copy first if they are not on a read-only set already.
+    public void enableParallel(int threads){
+        if (lookup == null) {
+            freezeDictionary();
+        }
+        parallelPool = new ForkJoinPool(threads);
+    }
+
+    public void disableParallel(){
+        if (parallelPool != null) {
+            parallelPool.shutdown();
+            parallelPool = null;
+        }
+    }
+
+    // Puts a Bloom filter of the dictionary in front of every lookup, so
+    // most candidates that are not words are rejected with a few bit tests
+    // on one cache line instead of a hash table probe. bitsPerKey trades
+    // memory for fewer false positives (10 gives about 1%). Without a
+    // read-only lookup set the filter guards the dictionary itself, which
+    // must not change afterwards.
+    public void enableBloomFilter(int bitsPerKey){
+        if (dictionary.size() == 0) {
+            throw new IllegalStateException("The Bloom filter is built from the loaded dictionary");
+        }
+        disableBloomFilter();
+        WordSet words = lookup != null ? lookup : new DictionaryWords(dictionary);
+        lookup = new BloomFilteredWordSet(BloomFilter.of(dictionary, bitsPerKey), words);
+    }
+
+    public void disableBloomFilter(){
+        if (lookup instanceof BloomFilteredWordSet) {
+            WordSet words = ((BloomFilteredWordSet) lookup).getWords();
+            lookup = words instanceof DictionaryWords ? null : words;
+        }
+    }
+
+    // The loaded dictionary seen as a WordSet
+    private static final class DictionaryWords implements WordSet {
+        private final GTUHashSet<String> dictionary;
+
+        DictionaryWords(GTUHashSet<String> dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public boolean contains(CharSequence word) {
+            return dictionary.contains(word.toString());
+        }
+
+        @Override
+        public boolean contains(char[] chars, int length, int hash) {
+            return dictionary.contains(new String(chars, 0, length));
+        }
+
+        @Override
+        public int size() {
+            return dictionary.size();
+        }
+    }
 
+    // Frequency of a word from the dictionary file, 0 if it has none
+    public long frequencyOf(String word){
+        if (frequencies == null) {
+            return 0;
+        }
+        Long frequency = frequencies.get(word);
+        return frequency == null ? 0 : frequency;
     }
 
+    // Returns the k best suggestions for the input: the input itself if it is
+    // a word, then words one edit away, then two edits away, and within the
+    // same distance the more frequent words first (ties alphabetically).
+    // When k words are already one edit away, distance 2 is not generated.
+    // Without a read-only lookup set the loaded dictionary is probed as it
+    // is, which builds a String per candidate; call freezeDictionary() first
+    // once the dictionary is complete.
+    public List<String> suggest(String input, int k){
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        WordSet words = lookup != null ? lookup : new DictionaryWords(dictionary);
+
+        GTUHashSet<String> distance1 = new CandidateGenerator(words, input).generateEditDistance1();
+        boolean isWord = isWord(input);
+        GTUHashSet<String> candidates = distance1;
+        if (distance1.size() + (isWord ? 1 : 0) < k) {
+            // Also contains the words of distance 0 and 1
+            candidates = generateEditDistance2(input);
+        }
+
+        // The distance and frequency of a candidate are read once, not on every comparison
+        Comparator<Ranked> better = Comparator
+                .comparingInt((Ranked ranked) -> ranked.distance)
+                .thenComparing(Comparator.comparingLong((Ranked ranked) -> ranked.frequency).reversed())
+                .thenComparing(ranked -> ranked.word);
+
+        // Bounded heap with the worst kept suggestion on top
+        PriorityQueue<Ranked> best = new PriorityQueue<>(k + 1, better.reversed());
+        if (isWord) {
+            best.add(new Ranked(input, 0, frequencyOf(input)));
+        }
+        for (String word : candidates) {
+            if (word.equals(input)) {
+                continue;
+            }
+            best.add(new Ranked(word, distance1.contains(word) ? 1 : 2, frequencyOf(word)));
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+        ArrayList<String> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().word);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    // A suggest() candidate with its sort keys. distance is 0 for the input
+    // itself, 1 for words one edit away, otherwise 2.
+    private static final class Ranked {
+        final String word;
+        final int distance;
+        final long frequency;
+
+        Ranked(String word, int distance, long frequency) {
+            this.word = word;
+            this.distance = distance;
+            this.frequency = frequency;
+        }
+    }
+
+    // Checks whether a word is in the dictionary
+    public boolean isWord(String word){
+        if (lookup != null) {
+            return lookup.contains(word);
+        }
+        return dictionary.contains(word);
+    }
 
     public int getNumCo(){
         int old = numCol;
@@ -31,15 +325,43 @@ public class SpellChecker {
     // Generates suggestions with edit distance ≤ 2 from the input word
     public  GTUHashSet<String> generateEditDistance2(String input ) {
 
-        GTUHashSet<String> suggestions = new GTUHashSet<>();
-        GTUHashSet<String> edit1 = new GTUHashSet<>(); // Temporary set for edit distance 1 words
+        if (suggestionCache == null) {
+            return computeEditDistance2(input);
+        }
+        GTUHashSet<String> suggestions = suggestionCache.get(input);
+        if (suggestions == null) {
+            suggestions = computeEditDistance2(input);
+            suggestionCache.put(input, suggestions);
+        }
+        return suggestions;
+    }
+
+    private GTUHashSet<String> computeEditDistance2(String input) {
+
+        if (deletionIndex != null) {
+            return deletionIndex.lookup(input);
+        }
+
+        // Read-only word sets can be probed with char buffers, so the
+        // candidates are built in place and never turned into Strings
+        if (lookup != null) {
+            GTUHashSet<String> suggestions = parallelPool != null
+                    ? CandidateGenerator.generateInParallel(lookup, input, parallelPool)
+                    : new CandidateGenerator(lookup, input).generateEditDistance2();
+            numCol+=suggestions.numOfCollision();
+            return suggestions;
+        }
+
+        // Insertion-ordered sets, iterating them only reads their live entries
+        GTUHashSet<String> suggestions = new GTUHashSet<>(new GTUCompactHashMap<>());
+        GTUHashSet<String> edit1 = new GTUHashSet<>(new GTUCompactHashMap<>()); // Temporary set for edit distance 1 words
 
         // Generate edit distance 1 words from input
         generateEditDistance1(input, edit1,  false);
 
         for (String candidate : edit1) {
             // If ED1 word is in dictionary, add to suggestions
-            if (dictionary.contains(candidate)) {
+            if (isWord(candidate)) {
                 suggestions.add(candidate);
             }
             // Generate ED1 of ED1  total ED2 from original word
@@ -58,7 +380,7 @@ public class SpellChecker {
             StringBuilder sb = new StringBuilder(len - 1);
             sb.append(word, 0, i).append(word, i + 1, len);
             String candidate = sb.toString();
-            if (!isCheck || dictionary.contains(candidate)) {
+            if (!isCheck || isWord(candidate)) {
                 resultSet.add(candidate);
             }
         }
@@ -71,7 +393,7 @@ public class SpellChecker {
                 if (word.charAt(i) != c) {
                     sb.setCharAt(i, c); // substitute
                     String candidate = sb.toString();
-                    if (!isCheck || dictionary.contains(candidate)) {
+                    if (!isCheck || isWord(candidate)) {
                         resultSet.add(candidate);
                     }
                 }
@@ -87,7 +409,7 @@ public class SpellChecker {
                 sb.append(c);
                 sb.append(word, i, len);
                 String candidate = sb.toString();
-                if (!isCheck || dictionary.contains(candidate)) {
+                if (!isCheck || isWord(candidate)) {
                     resultSet.add(candidate);
                 }
                 sb.setLength(i); // reset builder to position before insertion
@@ -102,7 +424,7 @@ public class SpellChecker {
                 sb.setCharAt(i, sb.charAt(i + 1));
                 sb.setCharAt(i + 1, temp);
                 String candidate = sb.toString();
-                if (!isCheck || dictionary.contains(candidate)) {
+                if (!isCheck || isWord(candidate)) {
                     resultSet.add(candidate);
                 }
             }
@@ -115,16 +437,38 @@ public class SpellChecker {
 
        
 
-        SpellChecker spellChecker = new SpellChecker();
+        // "--batch <text file | -> [output file] [threads]" checks a whole text instead
+        if (args.length >= 2 && args[0].equals("--batch")) {
+            BatchSpellChecker.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        SpellChecker spellChecker;
         int collisionInDic;
 
+        // "--index <file>" uses a dictionary compiled with MappedDictionary
+        if (args.length == 2 && args[0].equals("--index")) {
+            spellChecker = new SpellChecker(MappedDictionary.open(args[1]));
+        } else {
+            spellChecker = new SpellChecker();
+        }
+
         // Print total number of words in dictionary
         System.out.print("Number of words in the dictionary: ");
-        System.out.println(spellChecker.dictionary.size());
+        System.out.println(spellChecker.dictionarySize());
         System.out.print("Number of collisions that occurred during dictionary loading: ");
         collisionInDic = spellChecker.dictionary.numOfCollision();
         System.out.println(collisionInDic);
 
+        // "--compact" keeps the dictionary in a CompactStringSet to save memory.
+        // Otherwise the dictionary is never modified again, so lookups switch
+        // to the frozen copy.
+        if (args.length == 1 && args[0].equals("--compact")) {
+            spellChecker.compactDictionary();
+        } else if (spellChecker.lookup == null) {
+            spellChecker.freezeDictionary();
+        }
+
         Scanner scanner = new Scanner(System.in);
         boolean isCorrectInput = true;
         boolean longWord = false;
@@ -169,7 +513,7 @@ public class SpellChecker {
                 long startTime = System.nanoTime();
 
                 // Check if word is in dictionary
-                if (spellChecker.dictionary.contains(input)) {
+                if (spellChecker.isWord(input)) {
                     System.out.println("Correct spelling.");
                 } else {
                     System.out.println("Incorrect spelling.");
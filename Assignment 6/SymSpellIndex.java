@@ -0,0 +1,296 @@
+import java.util.Arrays;
+
+// Deletion index for fast edit-distance-2 suggestions (the SymSpell idea).
+// Every string obtained by deleting up to two characters from a dictionary
+// word is indexed by its hash. A query hashes the up-to-two-character
+// deletions of the input and reads the words stored under those hashes.
+// This avoids generating tens of thousands of insertion and substitution
+// candidates.
+//
+// Two words within two edits always share such a deletion, so the
+// candidates are a superset of the answer. Each candidate is then checked
+// against the edit rules of SpellChecker.generateEditDistance1 (deletion,
+// substitution and insertion of 'a'..'z', swap of two different adjacent
+// characters). The result is therefore the same set generateEditDistance2
+// returns. Only hashes are stored, so hash collisions can add candidates
+// but never lose one.
+public class SymSpellIndex {
+    private final String[] words;
+    // Sorted (deletion hash << 32 | word id) pairs
+    private final long[] entries;
+    // Length of the longest word, for the buffer a lookup copies words into
+    private final int maxLength;
+
+    // Builds the index over all words of the dictionary
+    public SymSpellIndex(GTUHashSet<String> dictionary) {
+        words = new String[dictionary.size()];
+        int count = 0;
+        int longest = 0;
+        // Deleting no character, one character at i, or two characters at i < j
+        long total = 0;
+        for (String word : dictionary) {
+            words[count++] = word;
+            int n = word.length();
+            longest = Math.max(longest, n);
+            total += deletionCount(n);
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many deletions to index: " + total);
+        }
+        maxLength = longest;
+
+        // Exactly one pair per deletion, nothing is allocated for slack
+        long[] pairs = new long[(int) total];
+        int pairCount = 0;
+        char[] buffer = new char[longest];
+
+        for (int id = 0; id < words.length; id++) {
+            String word = words[id];
+            int n = word.length();
+            word.getChars(0, n, buffer, 0);
+
+            pairs[pairCount++] = pair(hashWithout(buffer, n, -1, -1), id);
+            for (int i = 0; i < n; i++) {
+                pairs[pairCount++] = pair(hashWithout(buffer, n, i, -1), id);
+                for (int j = i + 1; j < n; j++) {
+                    pairs[pairCount++] = pair(hashWithout(buffer, n, i, j), id);
+                }
+            }
+        }
+
+        // Sort and drop the duplicates produced by repeated letters
+        Arrays.sort(pairs, 0, pairCount);
+        int unique = 0;
+        for (int i = 0; i < pairCount; i++) {
+            if (unique == 0 || pairs[i] != pairs[unique - 1]) {
+                pairs[unique++] = pairs[i];
+            }
+        }
+        entries = unique == pairs.length ? pairs : Arrays.copyOf(pairs, unique);
+    }
+
+    // Number of strings made by deleting up to two of n characters, repeats included
+    private static long deletionCount(int n) {
+        return 1 + n + (long) n * (n - 1) / 2;
+    }
+
+    private static long pair(int hash, int id) {
+        return ((long) hash << 32) | (id & 0xffffffffL);
+    }
+
+    // String.hashCode() of the chars with the positions skip1 and skip2 removed
+    private static int hashWithout(char[] chars, int length, int skip1, int skip2) {
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            if (i != skip1 && i != skip2) {
+                h = 31 * h + chars[i];
+            }
+        }
+        return h;
+    }
+
+    // Returns the dictionary words generateEditDistance2 would suggest for the input
+    public GTUHashSet<String> lookup(String input) {
+        GTUHashSet<String> suggestions = new GTUHashSet<>(new GTUCompactHashMap<>());
+        char[] chars = input.toCharArray();
+        int n = chars.length;
+
+        // Hashes of the deletions of the input, each searched once
+        int[] hashes = new int[(int) deletionCount(n)];
+        int hashCount = 0;
+        hashes[hashCount++] = hashWithout(chars, n, -1, -1);
+        for (int i = 0; i < n; i++) {
+            hashes[hashCount++] = hashWithout(chars, n, i, -1);
+            for (int j = i + 1; j < n; j++) {
+                hashes[hashCount++] = hashWithout(chars, n, i, j);
+            }
+        }
+        Arrays.sort(hashes);
+        int unique = 0;
+        for (int i = 0; i < hashCount; i++) {
+            if (unique == 0 || hashes[i] != hashes[unique - 1]) {
+                hashes[unique++] = hashes[i];
+            }
+        }
+
+        // Ids of the words stored under those hashes, sorted so that a word
+        // found under several deletions is checked only once
+        int[] starts = new int[unique];
+        int idCount = 0;
+        for (int h = 0; h < unique; h++) {
+            starts[h] = firstIndexOf(hashes[h]);
+            for (int i = starts[h]; i < entries.length && (int) (entries[i] >> 32) == hashes[h]; i++) {
+                idCount++;
+            }
+        }
+        int[] ids = new int[idCount];
+        idCount = 0;
+        for (int h = 0; h < unique; h++) {
+            for (int i = starts[h]; i < entries.length && (int) (entries[i] >> 32) == hashes[h]; i++) {
+                ids[idCount++] = (int) entries[i];
+            }
+        }
+        Arrays.sort(ids);
+
+        // Buffers shared by all candidates of this lookup
+        char[] word = new char[maxLength];
+        char[] middle = new char[n + 1];
+        for (int i = 0; i < idCount; i++) {
+            if (i > 0 && ids[i] == ids[i - 1]) {
+                continue;
+            }
+            String candidate = words[ids[i]];
+            int length = candidate.length();
+            candidate.getChars(0, length, word, 0);
+
+            // The input itself is always included: inserting a letter and
+            // deleting it again are two edits that lead back to it
+            if (candidate.equals(input) || reachable(chars, word, length, middle)) {
+                suggestions.add(candidate);
+            }
+        }
+        return suggestions;
+    }
+
+    // Binary search for the first entry with the given hash
+    private int firstIndexOf(int hash) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if ((int) (entries[mid] >> 32) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Characters generateEditDistance1 inserts and substitutes
+    private static boolean isInsertable(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    // Checks whether target can be made from source with one or two edits of
+    // generateEditDistance1 (source and target differ). The first edit is
+    // tried at every position of the window where the words differ, widened
+    // by one on each side for transpositions; the second edit is checked
+    // directly. target[0, targetLength) is the word, middle is scratch space
+    // for source.length + 1 chars.
+    private static boolean reachable(char[] source, char[] target, int targetLength, char[] middle) {
+        if (oneEdit(source, source.length, target, targetLength)) {
+            return true;
+        }
+
+        // Window between the common prefix and the common suffix
+        int prefix = 0;
+        while (prefix < source.length && prefix < targetLength && source[prefix] == target[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < source.length - prefix && suffix < targetLength - prefix
+                && source[source.length - 1 - suffix] == target[targetLength - 1 - suffix]) {
+            suffix++;
+        }
+        int low = Math.max(0, prefix - 1);
+        int high = Math.min(source.length, source.length - suffix + 1);
+
+        for (int i = low; i <= high; i++) {
+            // Deletion at i
+            if (i < source.length) {
+                System.arraycopy(source, 0, middle, 0, i);
+                System.arraycopy(source, i + 1, middle, i, source.length - i - 1);
+                if (oneEdit(middle, source.length - 1, target, targetLength)) {
+                    return true;
+                }
+            }
+
+            // Transposition of i and i + 1
+            if (i + 1 < source.length && source[i] != source[i + 1]) {
+                System.arraycopy(source, 0, middle, 0, source.length);
+                middle[i] = source[i + 1];
+                middle[i + 1] = source[i];
+                if (oneEdit(middle, source.length, target, targetLength)) {
+                    return true;
+                }
+            }
+
+            // Substitution at i and insertion before i, only with letters the target has
+            for (int t = 0; t < targetLength; t++) {
+                char c = target[t];
+                if (!isInsertable(c) || indexOf(target, targetLength, c) != t) {
+                    continue;
+                }
+                if (i < source.length && source[i] != c) {
+                    System.arraycopy(source, 0, middle, 0, source.length);
+                    middle[i] = c;
+                    if (oneEdit(middle, source.length, target, targetLength)) {
+                        return true;
+                    }
+                }
+                System.arraycopy(source, 0, middle, 0, i);
+                middle[i] = c;
+                System.arraycopy(source, i, middle, i + 1, source.length - i);
+                if (oneEdit(middle, source.length + 1, target, targetLength)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // First index of c in chars[0, length), or -1
+    private static int indexOf(char[] chars, int length, char c) {
+        for (int i = 0; i < length; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Checks whether target[0, targetLength) is exactly one edit away from source[0, length)
+    private static boolean oneEdit(char[] source, int length, char[] target, int targetLength) {
+        int prefix = 0;
+        while (prefix < length && prefix < targetLength && source[prefix] == target[prefix]) {
+            prefix++;
+        }
+
+        // Deletion: the rest of the source after one character is the rest of the target
+        if (length == targetLength + 1) {
+            return equalRange(source, prefix + 1, target, prefix, targetLength - prefix);
+        }
+        // Insertion of a letter 'a'..'z'
+        if (length + 1 == targetLength) {
+            return isInsertable(target[prefix])
+                    && equalRange(source, prefix, target, prefix + 1, length - prefix);
+        }
+        if (length != targetLength || prefix == length) {
+            return false;
+        }
+        // Substitution with a letter 'a'..'z'
+        if (isInsertable(target[prefix])
+                && equalRange(source, prefix + 1, target, prefix + 1, length - prefix - 1)) {
+            return true;
+        }
+        // Transposition of two different adjacent characters
+        return prefix + 1 < length
+                && source[prefix] == target[prefix + 1] && source[prefix + 1] == target[prefix]
+                && equalRange(source, prefix + 2, target, prefix + 2, length - prefix - 2);
+    }
+
+    private static boolean equalRange(char[] a, int aFrom, char[] b, int bFrom, int count) {
+        for (int i = 0; i < count; i++) {
+            if (a[aFrom + i] != b[bFrom + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Number of distinct (deletion, word) pairs stored
+    public int entryCount() {
+        return entries.length;
+    }
+}
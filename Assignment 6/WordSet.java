@@ -0,0 +1,19 @@
+import java.nio.CharBuffer;
+
+// Read-only collection of words that SpellChecker can look candidates up in
+public interface WordSet {
+
+    // Checks whether the word is in the set
+    boolean contains(CharSequence word);
+
+    // Checks whether chars[0, length) is in the set. hash must be the
+    // String.hashCode() of those chars, so callers that build candidates in
+    // a buffer can update it incrementally instead of creating a String.
+    // Implementations override this to avoid the wrapper object.
+    default boolean contains(char[] chars, int length, int hash) {
+        return contains(CharBuffer.wrap(chars, 0, length));
+    }
+
+    // Returns the number of words in the set
+    int size();
+}
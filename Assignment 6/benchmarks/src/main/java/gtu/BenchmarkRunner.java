@@ -0,0 +1,19 @@
+package gtu;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Entry point of benchmarks.jar: runs the benchmarks whose names match the
+// optional regular expression (all of them by default) with the GC
+// profiler, which adds the allocation rate (gc.alloc.rate.norm is bytes per
+// operation) to every result.
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(args.length > 0 ? args[0] : ".*Benchmark.*");
+        options.addProfiler(GCProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
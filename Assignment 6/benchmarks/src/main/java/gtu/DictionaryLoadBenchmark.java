@@ -0,0 +1,76 @@
+package gtu;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Start-up costs of the spell checker: reading dictionary.txt into the
+// hash set, and building each of the optional lookup structures from it.
+// Needs dictionary.txt in the working directory.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DictionaryLoadBenchmark {
+
+    SpellChecker loaded;
+    File indexFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        loaded = new SpellChecker();
+        indexFile = File.createTempFile("dictionary", ".idx");
+        MappedDictionary.compile("dictionary.txt", indexFile.getPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        indexFile.delete();
+    }
+
+    @Benchmark
+    public SpellChecker loadDictionary() throws IOException {
+        return new SpellChecker();
+    }
+
+    @Benchmark
+    public FrozenStringSet freezeDictionary() {
+        return FrozenStringSet.of(loaded.dictionary);
+    }
+
+    @Benchmark
+    public SymSpellIndex buildDeletionIndex() {
+        return new SymSpellIndex(loaded.dictionary);
+    }
+
+    @Benchmark
+    public BloomFilter buildBloomFilter() {
+        return BloomFilter.of(loaded.dictionary, 10);
+    }
+
+    @Benchmark
+    public DictionaryTrie buildTrie() {
+        return new DictionaryTrie(loaded.dictionary);
+    }
+
+    // Opening a compiled index instead of loading the text file
+    @Benchmark
+    public MappedDictionary openMappedIndex() throws IOException {
+        return MappedDictionary.open(indexFile.getPath());
+    }
+}
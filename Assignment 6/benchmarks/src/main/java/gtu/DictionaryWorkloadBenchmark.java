@@ -0,0 +1,108 @@
+package gtu;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The spell checker's workload on each GTUMap layout: the dictionary words
+// are loaded, then looked up with the candidates generateEditDistance1
+// produces for random dictionary words (insertions and substitutions),
+// which are almost all misses. Needs dictionary.txt in the working directory.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DictionaryWorkloadBenchmark {
+
+    @Param({"GTUHashMap", "GTUFlatHashMap", "GTUSwissHashMap", "GTUCuckooHashMap"})
+    String implementation;
+
+    String[] words;
+    String[] candidates;
+    GTUMap<String, Object> dictionary;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ArrayList<String> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new FileReader("dictionary.txt"));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line.trim());
+        }
+        reader.close();
+        words = lines.toArray(new String[0]);
+
+        Random random = new Random(7);
+        ArrayList<String> generated = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String word = words[random.nextInt(words.length)];
+            for (int p = 0; p <= word.length(); p++) {
+                for (char c = 'a'; c <= 'z'; c++) {
+                    generated.add(word.substring(0, p) + c + word.substring(p));
+                    if (p < word.length()) {
+                        generated.add(word.substring(0, p) + c + word.substring(p + 1));
+                    }
+                }
+            }
+        }
+        candidates = generated.toArray(new String[0]);
+        // Like fresh candidates, but without timing String.hashCode() itself
+        for (String candidate : candidates) {
+            candidate.hashCode();
+        }
+
+        dictionary = load();
+    }
+
+    private GTUMap<String, Object> newMap() {
+        switch (implementation) {
+            case "GTUHashMap":
+                return new GTUHashMap<>();
+            case "GTUFlatHashMap":
+                return new GTUFlatHashMap<>();
+            case "GTUSwissHashMap":
+                return new GTUSwissHashMap<>();
+            case "GTUCuckooHashMap":
+                return new GTUCuckooHashMap<>();
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    // Same as GTUHashSet.add for every word, starting from the default capacity
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public GTUMap<String, Object> load() {
+        GTUMap<String, Object> map = newMap();
+        for (String word : words) {
+            map.put(word, Boolean.TRUE);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public boolean lookupCandidate() {
+        String candidate = candidates[next];
+        next = next + 1 == candidates.length ? 0 : next + 1;
+        return dictionary.containsKey(candidate);
+    }
+}
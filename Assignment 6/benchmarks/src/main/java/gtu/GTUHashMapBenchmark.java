@@ -0,0 +1,187 @@
+package gtu;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// GTUHashMap against java.util.HashMap with the same String keys and load
+// factor. get/containsKey measure one lookup; put, remove and iterate
+// measure a whole pass over size keys (divide by size for one operation).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GTUHashMapBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"0.5", "0.75", "0.9"})
+    double loadFactor;
+
+    String[] keys;
+    // Keys of the same shape that are not in the maps
+    String[] missingKeys;
+    GTUHashMap<String, Integer> gtuMap;
+    HashMap<String, Integer> hashMap;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new String[size];
+        missingKeys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = randomWord(random) + i;
+            missingKeys[i] = randomWord(random) + i + "x";
+        }
+        gtuMap = newGtuMap();
+        hashMap = newHashMap();
+        for (int i = 0; i < size; i++) {
+            gtuMap.put(keys[i], i);
+            hashMap.put(keys[i], i);
+        }
+    }
+
+    private static String randomWord(Random random) {
+        char[] chars = new char[5 + random.nextInt(6)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    GTUHashMap<String, Integer> newGtuMap() {
+        return new GTUHashMap<>(0, loadFactor);
+    }
+
+    HashMap<String, Integer> newHashMap() {
+        return new HashMap<>(16, (float) loadFactor);
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = i + 1 == size ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Integer gtuGetHit() {
+        return gtuMap.get(keys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer hashMapGetHit() {
+        return hashMap.get(keys[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean gtuContainsMiss() {
+        return gtuMap.containsKey(missingKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean hashMapContainsMiss() {
+        return hashMap.containsKey(missingKeys[nextIndex()]);
+    }
+
+    // Filling an empty map, including every rehash on the way
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GTUHashMap<String, Integer> gtuPutAll() {
+        GTUHashMap<String, Integer> map = newGtuMap();
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public HashMap<String, Integer> hashMapPutAll() {
+        HashMap<String, Integer> map = newHashMap();
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void gtuIterate(Blackhole blackhole) {
+        Iterator<String> iterator = gtuMap.keyIterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void hashMapIterate(Blackhole blackhole) {
+        for (String key : hashMap.keySet()) {
+            blackhole.consume(key);
+        }
+    }
+
+    // Full maps rebuilt before every invocation of the remove benchmarks
+    @State(Scope.Thread)
+    public static class FilledGtuMap {
+        GTUHashMap<String, Integer> map;
+
+        @Setup(Level.Invocation)
+        public void fill(GTUHashMapBenchmark benchmark) {
+            map = benchmark.newGtuMap();
+            for (int i = 0; i < benchmark.size; i++) {
+                map.put(benchmark.keys[i], i);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FilledHashMap {
+        HashMap<String, Integer> map;
+
+        @Setup(Level.Invocation)
+        public void fill(GTUHashMapBenchmark benchmark) {
+            map = benchmark.newHashMap();
+            for (int i = 0; i < benchmark.size; i++) {
+                map.put(benchmark.keys[i], i);
+            }
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int gtuRemoveAll(FilledGtuMap filled) {
+        for (String key : keys) {
+            filled.map.remove(key);
+        }
+        return filled.map.size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int hashMapRemoveAll(FilledHashMap filled) {
+        for (String key : keys) {
+            filled.map.remove(key);
+        }
+        return filled.map.size();
+    }
+}
@@ -0,0 +1,60 @@
+package gtu;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Iterating a map that once held size keys and still holds live of them,
+// e.g. a set of suggestions after a large candidate set was filtered.
+// GTUHashMap walks its whole table, GTUCompactHashMap only its entries.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SparseIterationBenchmark {
+
+    @Param({"GTUHashMap", "GTUCompactHashMap"})
+    String implementation;
+
+    @Param({"100000"})
+    int size;
+
+    @Param({"10", "1000", "100000"})
+    int live;
+
+    GTUMap<String, Integer> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = "GTUHashMap".equals(implementation) ? new GTUHashMap<>() : new GTUCompactHashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put("key" + i, i);
+        }
+        for (int i = live; i < size; i++) {
+            map.remove("key" + i);
+        }
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        Iterator<String> iterator = map.keyIterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package gtu;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Latency of generateEditDistance2 for misspelled words of a given length
+// (up to the 20 characters main accepts), for each way the spell checker can
+// answer it:
+//   builder       - the original StringBuilder candidates against the hash set
+//   buffer        - candidates in char buffers against the frozen set
+//   bloom         - candidates in char buffers behind the Bloom filter
+//   deletionIndex - SymSpell deletion index
+// Needs dictionary.txt in the working directory.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuggestionBenchmark {
+    private static final int WORDS = 16;
+
+    @Param({"4", "8", "12", "16", "20"})
+    int length;
+
+    @Param({"builder", "buffer", "bloom", "deletionIndex"})
+    String path;
+
+    SpellChecker spellChecker;
+    String[] misspelled;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        spellChecker = new SpellChecker();
+        if (path.equals("buffer")) {
+            spellChecker.freezeDictionary();
+        } else if (path.equals("bloom")) {
+            spellChecker.enableBloomFilter(10);
+        } else if (path.equals("deletionIndex")) {
+            spellChecker.buildDeletionIndex();
+        }
+
+        // Dictionary words of the length with one letter changed so that
+        // they are no longer words, the same ones on every run
+        ArrayList<String> sameLength = new ArrayList<>();
+        for (String word : spellChecker.dictionary) {
+            if (word.length() == length && word.chars().allMatch(c -> c >= 'a' && c <= 'z')) {
+                sameLength.add(word);
+            }
+        }
+        sameLength.sort(null);
+
+        Random random = new Random(length);
+        ArrayList<String> words = new ArrayList<>();
+        while (words.size() < WORDS) {
+            char[] chars = sameLength.get(random.nextInt(sameLength.size())).toCharArray();
+            chars[random.nextInt(length)] = (char) ('a' + random.nextInt(26));
+            String word = new String(chars);
+            if (!spellChecker.dictionary.contains(word)) {
+                words.add(word);
+            }
+        }
+        misspelled = words.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public GTUHashSet<String> generateEditDistance2() {
+        String word = misspelled[next];
+        next = (next + 1) % WORDS;
+        return spellChecker.generateEditDistance2(word);
+    }
+}